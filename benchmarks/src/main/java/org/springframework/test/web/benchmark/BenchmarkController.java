@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.benchmark;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * A controller with trivial handler methods so that benchmarks measure
+ * framework overhead rather than controller work.
+ *
+ * @author Rossen Stoyanchev
+ */
+@Controller
+public class BenchmarkController {
+
+	@RequestMapping("/text")
+	@ResponseBody
+	public String text() {
+		return "hello world";
+	}
+
+	@RequestMapping("/person/{name}")
+	@ResponseBody
+	public Person person(@PathVariable String name) {
+		return new Person(name, 42);
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.benchmark;
+
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.MvcResult;
+import org.springframework.test.web.server.RequestBuilder;
+import org.springframework.test.web.server.setup.MockMvcBuilders;
+
+/**
+ * Measures {@link MockMvc#perform(RequestBuilder)} for the same trivial
+ * controller set up in each of the supported ways, and with a
+ * {@link MockMvc#recycling() recycling} MockMvc.
+ *
+ * @author Rossen Stoyanchev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockMvcPerformBenchmark {
+
+	private static final String XML_CONFIG = "classpath:org/springframework/test/web/benchmark/benchmark-context.xml";
+
+	private MockMvc standaloneMockMvc;
+
+	private MockMvc recyclingMockMvc;
+
+	private MockMvc annotationConfigMockMvc;
+
+	private MockMvc xmlConfigMockMvc;
+
+	private RequestBuilder textRequest;
+
+	private RequestBuilder jsonRequest;
+
+	@Setup
+	public void setup() {
+		this.standaloneMockMvc = MockMvcBuilders.standaloneSetup(new BenchmarkController()).build();
+		this.recyclingMockMvc = this.standaloneMockMvc.recycling();
+		this.annotationConfigMockMvc = MockMvcBuilders.annotationConfigSetup(BenchmarkConfig.class).build();
+		this.xmlConfigMockMvc = MockMvcBuilders.xmlConfigSetup(XML_CONFIG).build();
+		this.textRequest = get("/text");
+		this.jsonRequest = get("/person/{name}", "Lee").accept(MediaType.APPLICATION_JSON);
+	}
+
+	@Benchmark
+	public MvcResult standaloneText() throws Exception {
+		return this.standaloneMockMvc.perform(this.textRequest).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult standaloneJson() throws Exception {
+		return this.standaloneMockMvc.perform(this.jsonRequest).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult recyclingText() throws Exception {
+		return this.recyclingMockMvc.perform(this.textRequest).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult recyclingJson() throws Exception {
+		return this.recyclingMockMvc.perform(this.jsonRequest).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult annotationConfigText() throws Exception {
+		return this.annotationConfigMockMvc.perform(this.textRequest).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult annotationConfigJson() throws Exception {
+		return this.annotationConfigMockMvc.perform(this.jsonRequest).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult xmlConfigText() throws Exception {
+		return this.xmlConfigMockMvc.perform(this.textRequest).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult xmlConfigJson() throws Exception {
+		return this.xmlConfigMockMvc.perform(this.jsonRequest).andReturn();
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.benchmark;
+
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.post;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.Cookie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.server.request.DefaultRequestBuilder;
+
+/**
+ * Measures {@link DefaultRequestBuilder#buildRequest} as well as the creation
+ * of request builders through {@code MockMvcRequestBuilders}.
+ *
+ * @author Rossen Stoyanchev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuilderBenchmark {
+
+	private MockServletContext servletContext;
+
+	private DefaultRequestBuilder simpleBuilder;
+
+	private DefaultRequestBuilder fullBuilder;
+
+	@Setup
+	public void setup() {
+		this.servletContext = new MockServletContext();
+		this.simpleBuilder = get("/person/{name}", "Lee");
+		this.fullBuilder = post("/person/{name}", "Lee")
+				.param("foo", "bar", "baz")
+				.param("age", "42")
+				.header("X-Custom", "value")
+				.accept(MediaType.APPLICATION_JSON)
+				.contentType(MediaType.APPLICATION_JSON)
+				.body("{\"name\":\"Lee\"}".getBytes())
+				.cookie(new Cookie("session", "abc"))
+				.requestAttr("attr", "value")
+				.sessionAttr("sessionAttr", "value");
+	}
+
+	@Benchmark
+	public DefaultRequestBuilder createBuilder() {
+		return get("/person/{name}", "Lee");
+	}
+
+	@Benchmark
+	public MockHttpServletRequest buildSimpleRequest() {
+		return this.simpleBuilder.buildRequest(this.servletContext);
+	}
+
+	@Benchmark
+	public MockHttpServletRequest buildFullRequest() {
+		return this.fullBuilder.buildRequest(this.servletContext);
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.benchmark;
+
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.xpath;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matchers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.MvcResult;
+import org.springframework.test.web.server.ResultMatcher;
+import org.springframework.test.web.server.setup.MockMvcBuilders;
+
+/**
+ * Measures the evaluation of commonly used ResultMatchers against the
+ * results of a previously executed request.
+ *
+ * @author Rossen Stoyanchev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultMatchersBenchmark {
+
+	private MvcResult jsonResult;
+
+	private MvcResult xmlResult;
+
+	private ResultMatcher statusMatcher;
+
+	private ResultMatcher contentTypeMatcher;
+
+	private ResultMatcher headerMatcher;
+
+	private ResultMatcher contentStringMatcher;
+
+	private ResultMatcher jsonPathMatcher;
+
+	private ResultMatcher xpathMatcher;
+
+	@Setup
+	public void setup() throws Exception {
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new BenchmarkController()).build();
+		this.jsonResult = mockMvc.perform(get("/person/Lee").accept(MediaType.APPLICATION_JSON)).andReturn();
+		this.xmlResult = mockMvc.perform(get("/person/Lee").accept(MediaType.APPLICATION_XML)).andReturn();
+
+		String json = this.jsonResult.getResponse().getContentAsString();
+		String contentType = this.jsonResult.getResponse().getContentType();
+
+		this.statusMatcher = status().isOk();
+		this.contentTypeMatcher = content().type(contentType);
+		this.headerMatcher = header().string("Cache-Control", Matchers.nullValue());
+		this.contentStringMatcher = content().string(json);
+		this.jsonPathMatcher = jsonPath("$.name").value("Lee");
+		this.xpathMatcher = xpath("/person/name").string("Lee");
+	}
+
+	@Benchmark
+	public void status() throws Exception {
+		this.statusMatcher.match(this.jsonResult);
+	}
+
+	@Benchmark
+	public void contentType() throws Exception {
+		this.contentTypeMatcher.match(this.jsonResult);
+	}
+
+	@Benchmark
+	public void header() throws Exception {
+		this.headerMatcher.match(this.jsonResult);
+	}
+
+	@Benchmark
+	public void contentString() throws Exception {
+		this.contentStringMatcher.match(this.jsonResult);
+	}
+
+	@Benchmark
+	public void jsonPathValue() throws Exception {
+		this.jsonPathMatcher.match(this.jsonResult);
+	}
+
+	@Benchmark
+	public void xpathString() throws Exception {
+		this.xpathMatcher.match(this.xmlResult);
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.server.TestDispatcherServlet;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Compares {@link TestDispatcherServlet} with a plain {@link DispatcherServlet}
+ * for the same WebApplicationContext in order to isolate the cost of the
+ * MvcResult bookkeeping done in {@code TestDispatcherServlet#doService}.
+ *
+ * @author Rossen Stoyanchev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestDispatcherServletBenchmark {
+
+	private AnnotationConfigWebApplicationContext context;
+
+	private MockServletContext servletContext;
+
+	private DispatcherServlet dispatcherServlet;
+
+	private TestDispatcherServlet testDispatcherServlet;
+
+	@Setup
+	public void setup() throws ServletException {
+		this.servletContext = new MockServletContext();
+		this.context = new AnnotationConfigWebApplicationContext();
+		this.context.register(BenchmarkConfig.class);
+		this.context.setServletContext(this.servletContext);
+		this.context.refresh();
+
+		this.dispatcherServlet = new DispatcherServlet(this.context);
+		this.dispatcherServlet.init(new MockServletConfig(this.servletContext));
+
+		this.testDispatcherServlet = new TestDispatcherServlet(this.context);
+		this.testDispatcherServlet.init(new MockServletConfig(this.servletContext));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public MockHttpServletResponse dispatcherServlet() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.dispatcherServlet.service(createRequest(), response);
+		return response;
+	}
+
+	@Benchmark
+	public MockHttpServletResponse testDispatcherServlet() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.testDispatcherServlet.service(createRequest(), response);
+		return response;
+	}
+
+	private MockHttpServletRequest createRequest() {
+		return new MockHttpServletRequest(this.servletContext, "GET", "/text");
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.support.JsonPathExpectationsHelper;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+/**
+ * A simple implementation of MvcResult with getters and setters. The
+ * response content is copied, decoded (per character encoding), and
+ * parsed as JSON at most once no matter how many expectations are
+ * applied to it. Since the decoded content is the same String every time,
+ * XML expectations share a single parse through
+ * {@link org.springframework.test.web.support.XmlParserPool#parseShared(String)}.
+ *
+ * <p>An instance can be reset and reused for another request.
+ *
+ * @author Rossen Stoyanchev
+ */
+class DefaultMvcResult implements MvcResult {
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response;
+
+	private byte[] content;
+
+	private final Map<String, String> decodedContent = new HashMap<String, String>(2);
+
+	private String jsonParsedContent;
+
+	private Object json;
+
+	private Object handler;
+
+	private HandlerInterceptor[] interceptors;
+
+	private ModelAndView mav;
+
+	private Exception resolvedException;
+
+	public DefaultMvcResult(MockHttpServletRequest request, MockHttpServletResponse response) {
+		this.request = request;
+		this.response = response;
+	}
+
+	/**
+	 * Clear the state of this result for reuse with the given request and response.
+	 */
+	public synchronized void reset(MockHttpServletRequest request, MockHttpServletResponse response) {
+		this.request = request;
+		this.response = response;
+		this.content = null;
+		this.decodedContent.clear();
+		this.jsonParsedContent = null;
+		this.json = null;
+		this.handler = null;
+		this.interceptors = null;
+		this.mav = null;
+		this.resolvedException = null;
+	}
+
+	public MockHttpServletRequest getRequest() {
+		return this.request;
+	}
+
+	public MockHttpServletResponse getResponse() {
+		return this.response;
+	}
+
+	public synchronized byte[] getResponseContentAsByteArray() {
+		if (this.content == null) {
+			this.content = this.response.getContentAsByteArray();
+		}
+		return this.content;
+	}
+
+	public synchronized String getResponseContentAsString() throws UnsupportedEncodingException {
+		String encoding = this.response.getCharacterEncoding();
+		String decoded = this.decodedContent.get(encoding);
+		if (decoded == null) {
+			byte[] bytes = getResponseContentAsByteArray();
+			decoded = (encoding != null) ? new String(bytes, encoding) : new String(bytes);
+			this.decodedContent.put(encoding, decoded);
+		}
+		return decoded;
+	}
+
+	public synchronized Object getResponseContentAsJson() throws Exception {
+		String content = getResponseContentAsString();
+		if (this.json == null || this.jsonParsedContent != content) {
+			this.json = JsonPathExpectationsHelper.parseJson(content);
+			this.jsonParsedContent = content;
+		}
+		return this.json;
+	}
+
+	public Object getHandler() {
+		return this.handler;
+	}
+
+	public void setHandler(Object handler) {
+		this.handler = handler;
+	}
+
+	public HandlerInterceptor[] getInterceptors() {
+		return this.interceptors;
+	}
+
+	public void setInterceptors(HandlerInterceptor[] interceptors) {
+		this.interceptors = interceptors;
+	}
+
+	public Exception getResolvedException() {
+		return this.resolvedException;
+	}
+
+	public void setResolvedException(Exception resolvedException) {
+		this.resolvedException = resolvedException;
+	}
+
+	public ModelAndView getModelAndView() {
+		return this.mav;
+	}
+
+	public void setModelAndView(ModelAndView mav) {
+		this.mav = mav;
+	}
+
+	public FlashMap getFlashMap() {
+		return RequestContextUtils.getOutputFlashMap(request);
+	}
+}
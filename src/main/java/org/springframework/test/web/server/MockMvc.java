@@ -16,10 +16,19 @@
 
 package org.springframework.test.web.server;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
 import javax.servlet.ServletContext;
 
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.server.load.LoadGenerator;
+import org.springframework.test.web.support.MockMvcExecutors;
 import org.springframework.util.Assert;
 
 /**
@@ -39,6 +48,17 @@ import org.springframework.util.Assert;
  *     .andExpect(forwardedUrl("/WEB-INF/layouts/main.jsp"));
  * </pre>
  *
+ * <p>A MockMvc instance is thread-safe. Each call to {@code perform} creates
+ * its own request and response and the underlying {@link TestDispatcherServlet}
+ * keeps no per-request state outside of the request, so a single instance can
+ * be used to execute requests concurrently, either directly from multiple
+ * threads or through {@link #performAsync(RequestBuilder)} and
+ * {@link #performAll(List)}. Request builders must not be modified while
+ * they are being used to execute requests.
+ *
+ * <p>For high-volume runs, {@link #recycling()} returns a MockMvc that reuses
+ * one MvcResult and ResultActions per thread.
+ *
  * @author Rossen Stoyanchev
  */
 public class MockMvc {
@@ -47,14 +67,50 @@ public class MockMvc {
 
 	private final ServletContext servletContext;
 
+	private final StartupReport startupReport;
+
+	private final ThreadLocal<RecycledObjects> recycledObjects;
+
     /**
      * Protected constructor not for direct instantiation.
      * @see org.springframework.test.web.server.setup.MockMvcBuilders
      */
 	protected MockMvc(TestDispatcherServlet dispatcherServlet) {
+		this(dispatcherServlet, null);
+	}
+
+	/**
+	 * Protected constructor that also accepts a report of the time it took
+	 * to build the instance.
+	 * @see org.springframework.test.web.server.setup.AbstractMockMvcBuilder#profileStartup()
+	 */
+	protected MockMvc(TestDispatcherServlet dispatcherServlet, StartupReport startupReport) {
 		this.dispatcherServlet = dispatcherServlet;
 		this.servletContext = this.dispatcherServlet.getServletContext();
 		Assert.notNull(this.servletContext, "A ServletContext is required");
+		this.startupReport = startupReport;
+		this.recycledObjects = null;
+	}
+
+	private MockMvc(MockMvc mockMvc) {
+		this.dispatcherServlet = mockMvc.dispatcherServlet;
+		this.servletContext = mockMvc.servletContext;
+		this.startupReport = mockMvc.startupReport;
+		this.recycledObjects = new ThreadLocal<RecycledObjects>() {
+			@Override
+			protected RecycledObjects initialValue() {
+				return new RecycledObjects();
+			}
+		};
+	}
+
+	/**
+	 * Return a report of the time it took to build this instance, or
+	 * {@code null} if startup profiling was not enabled on the builder.
+	 * @see org.springframework.test.web.server.setup.AbstractMockMvcBuilder#profileStartup()
+	 */
+	public StartupReport getStartupReport() {
+		return this.startupReport;
 	}
 
     /**
@@ -71,29 +127,159 @@ public class MockMvc {
      */
     public ResultActions perform(RequestBuilder requestBuilder) throws Exception {
 
-    	final MockHttpServletRequest request = requestBuilder.buildRequest(this.servletContext);
-        final MockHttpServletResponse response = new MockHttpServletResponse();
+    	MockHttpServletRequest request = requestBuilder.buildRequest(this.servletContext);
+
+		if (this.recycledObjects != null) {
+			RecycledObjects recycled = this.recycledObjects.get();
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			recycled.result.reset(request, response);
+			request.setAttribute(TestDispatcherServlet.MVC_RESULT_ATTRIBUTE, recycled.result);
+			this.dispatcherServlet.service(request, response);
+			recycled.resultActions.result = recycled.result;
+			return recycled.resultActions;
+		}
 
+        MockHttpServletResponse response = new MockHttpServletResponse();
         this.dispatcherServlet.service(request, response);
 
-		final MvcResult result = this.dispatcherServlet.getMvcResult(request);
+		return new DefaultResultActions(this.dispatcherServlet.getMvcResult(request));
+    }
 
-        return new ResultActions() {
+	/**
+	 * Return a MockMvc that executes requests with the same DispatcherServlet
+	 * but reuses one MvcResult and ResultActions instance per thread rather
+	 * than allocating new ones for every request. This reduces garbage
+	 * collection during runs of millions of requests, e.g. with
+	 * {@link #load(RequestBuilder)}, where it would otherwise distort latency
+	 * measurements.
+	 * <p>A ResultActions and MvcResult returned from {@code perform} are valid
+	 * only until the next request is performed on the same thread, and must
+	 * not be passed to other threads. For the same reason the returned MockMvc
+	 * does not support {@link #performAsync(RequestBuilder)} and
+	 * {@link #performAll(List)}. The request and response are still created
+	 * anew for each request. Requests are executed by the DispatcherServlet
+	 * of this instance directly, i.e. without any per-request behavior of a
+	 * MockMvc sub-class.
+	 */
+	public MockMvc recycling() {
+		return new MockMvc(this);
+	}
 
-			public ResultActions andExpect(ResultMatcher matcher) throws Exception {
-				matcher.match(result);
-				return this;
-			}
+	/**
+	 * Execute a request asynchronously using a default executor with as many
+	 * threads as there are available processors.
+	 * @param requestBuilder used to prepare the request to execute
+	 * @return a Future for the ResultActions of the executed request
+	 * @see #performAsync(RequestBuilder, Executor)
+	 */
+	public Future<ResultActions> performAsync(RequestBuilder requestBuilder) {
+		return performAsync(requestBuilder, MockMvcExecutors.getDefaultExecutor());
+	}
 
-			public ResultActions andDo(ResultHandler printer) throws Exception {
-				printer.handle(result);
-				return this;
+	/**
+	 * Execute a request asynchronously using the given executor.
+	 * @param requestBuilder used to prepare the request to execute
+	 * @param executor the executor to execute the request with
+	 * @return a Future for the ResultActions of the executed request; the
+	 * Future fails with any exception raised by {@link #perform(RequestBuilder)}
+	 * @throws IllegalStateException if this MockMvc was obtained through {@link #recycling()}
+	 */
+	public Future<ResultActions> performAsync(final RequestBuilder requestBuilder, Executor executor) {
+		Assert.notNull(requestBuilder, "'requestBuilder' must not be null");
+		Assert.notNull(executor, "'executor' must not be null");
+		assertNotRecycling();
+		FutureTask<ResultActions> task = new FutureTask<ResultActions>(new Callable<ResultActions>() {
+			public ResultActions call() throws Exception {
+				return perform(requestBuilder);
 			}
+		});
+		executor.execute(task);
+		return task;
+	}
 
-			public MvcResult andReturn() {
-				return result;
-			}
-		};
-    }
+	/**
+	 * Execute the given requests concurrently using a default executor with as
+	 * many threads as there are available processors.
+	 * @param requestBuilders used to prepare the requests to execute
+	 * @return Futures for the ResultActions of the executed requests, in the
+	 * same order as the given request builders
+	 * @see #performAll(List, Executor)
+	 */
+	public List<Future<ResultActions>> performAll(List<? extends RequestBuilder> requestBuilders) {
+		return performAll(requestBuilders, MockMvcExecutors.getDefaultExecutor());
+	}
+
+	/**
+	 * Execute the given requests concurrently using the given executor.
+	 * @param requestBuilders used to prepare the requests to execute
+	 * @param executor the executor to execute the requests with
+	 * @return Futures for the ResultActions of the executed requests, in the
+	 * same order as the given request builders
+	 * @throws IllegalStateException if this MockMvc was obtained through {@link #recycling()}
+	 */
+	public List<Future<ResultActions>> performAll(List<? extends RequestBuilder> requestBuilders, Executor executor) {
+		Assert.notNull(requestBuilders, "'requestBuilders' must not be null");
+		assertNotRecycling();
+		List<Future<ResultActions>> futures = new ArrayList<Future<ResultActions>>(requestBuilders.size());
+		for (RequestBuilder requestBuilder : requestBuilders) {
+			futures.add(performAsync(requestBuilder, executor));
+		}
+		return futures;
+	}
+
+	private void assertNotRecycling() {
+		Assert.state(this.recycledObjects == null, "Requests cannot be executed asynchronously with a recycling " +
+				"MockMvc since its results are only valid on the thread that performed the request");
+	}
+
+	/**
+	 * Prepare to execute the given request repeatedly at a target rate and
+	 * record latency histograms. For example:
+	 * <pre>
+	 * LoadResult result = mockMvc.load(get("/person/1"))
+	 *     .atRate(500)
+	 *     .forDuration(10, TimeUnit.SECONDS)
+	 *     .run();
+	 * </pre>
+	 * @param requestBuilder used to prepare each request to execute
+	 * @return a LoadGenerator to configure and run
+	 */
+	public LoadGenerator load(RequestBuilder requestBuilder) {
+		return new LoadGenerator(this, requestBuilder);
+	}
+
+
+	private static class DefaultResultActions implements ResultActions {
+
+		private MvcResult result;
+
+		public DefaultResultActions(MvcResult result) {
+			this.result = result;
+		}
+
+		public ResultActions andExpect(ResultMatcher matcher) throws Exception {
+			matcher.match(this.result);
+			return this;
+		}
+
+		public ResultActions andDo(ResultHandler printer) throws Exception {
+			printer.handle(this.result);
+			return this;
+		}
+
+		public MvcResult andReturn() {
+			return this.result;
+		}
+	}
+
+	/**
+	 * The objects reused by a thread in recycling mode.
+	 */
+	private static class RecycledObjects {
+
+		private final DefaultMvcResult result = new DefaultMvcResult(null, null);
+
+		private final DefaultResultActions resultActions = new DefaultResultActions(null);
+	}
 
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License; Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing; software
+ * distributed under the License is distributed on an "AS IS" BASIS;
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND; either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.io.UnsupportedEncodingException;
+
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.support.JsonPathExpectationsHelper;
+
+/**
+ * Provides access to the response content of an {@link MvcResult} for
+ * expectations that read it. For a result created by {@link MockMvc} the
+ * content is copied, decoded, and parsed as JSON at most once and shared by
+ * all expectations applied to the result. For any other MvcResult the
+ * content is obtained from its response on every call.
+ *
+ * @author Rossen Stoyanchev
+ */
+public abstract class MvcResultContent {
+
+	/**
+	 * Return the content of the response body as a byte array. Unlike
+	 * {@link MockHttpServletResponse#getContentAsByteArray()}, which copies
+	 * the content on every call, the same array may be returned every time.
+	 * The returned array must not be modified.
+	 */
+	public static byte[] getContentAsByteArray(MvcResult result) {
+		if (result instanceof DefaultMvcResult) {
+			return ((DefaultMvcResult) result).getResponseContentAsByteArray();
+		}
+		return result.getResponse().getContentAsByteArray();
+	}
+
+	/**
+	 * Return the content of the response body decoded with the character
+	 * encoding of the response. The content may be decoded once and the same
+	 * String returned on subsequent calls.
+	 * @throws UnsupportedEncodingException if the character encoding is not supported
+	 */
+	public static String getContentAsString(MvcResult result) throws UnsupportedEncodingException {
+		if (result instanceof DefaultMvcResult) {
+			return ((DefaultMvcResult) result).getResponseContentAsString();
+		}
+		return result.getResponse().getContentAsString();
+	}
+
+	/**
+	 * Return the content of the response body parsed as JSON into the maps
+	 * and lists that JSON path expressions are evaluated against. Use of this
+	 * method requires the <a href="http://code.google.com/p/json-path">JSONPath</a>
+	 * library. The content may be parsed once and the same result returned to
+	 * all JSON path expectations applied to the result. The returned object
+	 * must not be modified.
+	 * @throws Exception if the content cannot be decoded or parsed
+	 */
+	public static Object getContentAsJson(MvcResult result) throws Exception {
+		if (result instanceof DefaultMvcResult) {
+			return ((DefaultMvcResult) result).getResponseContentAsJson();
+		}
+		return JsonPathExpectationsHelper.parseJson(getContentAsString(result));
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * A report of the time it took to build a {@link MockMvc} instance, broken
+ * down by build phase (e.g. initializing the WebApplicationContext or the
+ * DispatcherServlet) and, where the builder refreshes the application context
+ * itself, by bean.
+ *
+ * <p>Bean times are in nanoseconds and measure the creation of each bean from
+ * instantiation to the end of initialization, excluding the time spent
+ * creating other beans it depends on. Beans created before the bean timing
+ * post-processor is registered, i.e. BeanFactoryPostProcessors and
+ * BeanPostProcessors, are not included.
+ *
+ * @author Rossen Stoyanchev
+ * @see org.springframework.test.web.server.setup.AbstractMockMvcBuilder#profileStartup()
+ */
+public class StartupReport {
+
+	private final Map<String, Long> phaseTimes;
+
+	private final Map<String, Long> beanTimes;
+
+	/**
+	 * Create a report.
+	 * @param phaseTimes phase names mapped to nanoseconds, in the order of execution
+	 * @param beanTimes bean names mapped to nanoseconds, in any order
+	 */
+	public StartupReport(Map<String, Long> phaseTimes, Map<String, Long> beanTimes) {
+		Assert.notNull(phaseTimes, "'phaseTimes' must not be null");
+		Assert.notNull(beanTimes, "'beanTimes' must not be null");
+		this.phaseTimes = Collections.unmodifiableMap(new LinkedHashMap<String, Long>(phaseTimes));
+		this.beanTimes = Collections.unmodifiableMap(sortByTimeDescending(beanTimes, beanTimes.size()));
+	}
+
+	private static Map<String, Long> sortByTimeDescending(Map<String, Long> times, int count) {
+		List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(times.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+			public int compare(Map.Entry<String, Long> e1, Map.Entry<String, Long> e2) {
+				return e2.getValue().compareTo(e1.getValue());
+			}
+		});
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, Long> entry : entries) {
+			if (result.size() == count) {
+				break;
+			}
+			result.put(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	/**
+	 * Return the time of each build phase in nanoseconds, in the order of execution.
+	 */
+	public Map<String, Long> getPhaseTimes() {
+		return this.phaseTimes;
+	}
+
+	/**
+	 * Return the time of the given build phase or 0 if the phase is unknown.
+	 */
+	public long getPhaseTime(String phase, TimeUnit timeUnit) {
+		Long nanos = this.phaseTimes.get(phase);
+		return (nanos != null) ? timeUnit.convert(nanos, TimeUnit.NANOSECONDS) : 0;
+	}
+
+	/**
+	 * Return the sum of the times of all build phases.
+	 */
+	public long getTotalTime(TimeUnit timeUnit) {
+		long total = 0;
+		for (Long nanos : this.phaseTimes.values()) {
+			total += nanos;
+		}
+		return timeUnit.convert(total, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Return the creation time of each bean in nanoseconds, slowest first.
+	 * The map is empty if the builder did not refresh the application context.
+	 */
+	public Map<String, Long> getBeanTimes() {
+		return this.beanTimes;
+	}
+
+	/**
+	 * Return the creation time of the given number of slowest beans in
+	 * nanoseconds, slowest first.
+	 */
+	public Map<String, Long> getSlowestBeans(int count) {
+		return sortByTimeDescending(this.beanTimes, count);
+	}
+
+	/**
+	 * Return the report as a JSON object with the times in nanoseconds, e.g.
+	 * <pre>
+	 * {"totalNanos":1200,"phases":{"initServletContext":200,...},"beans":{"dataSource":800,...}}
+	 * </pre>
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"totalNanos\":").append(getTotalTime(TimeUnit.NANOSECONDS));
+		sb.append(",\"phases\":");
+		appendJson(sb, this.phaseTimes);
+		sb.append(",\"beans\":");
+		appendJson(sb, this.beanTimes);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private static void appendJson(StringBuilder sb, Map<String, Long> times) {
+		sb.append("{");
+		boolean first = true;
+		for (Map.Entry<String, Long> entry : times.entrySet()) {
+			if (!first) {
+				sb.append(",");
+			}
+			first = false;
+			sb.append("\"");
+			appendEscaped(sb, entry.getKey());
+			sb.append("\":").append(entry.getValue());
+		}
+		sb.append("}");
+	}
+
+	private static void appendEscaped(StringBuilder sb, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			}
+			else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				sb.append(c);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("MockMvc built in %d ms", getTotalTime(TimeUnit.MILLISECONDS)));
+		for (Map.Entry<String, Long> entry : this.phaseTimes.entrySet()) {
+			sb.append(String.format("%n  %s: %d ms", entry.getKey(), TimeUnit.NANOSECONDS.toMillis(entry.getValue())));
+		}
+		Map<String, Long> slowestBeans = getSlowestBeans(10);
+		if (!slowestBeans.isEmpty()) {
+			sb.append(String.format("%nSlowest beans:"));
+			for (Map.Entry<String, Long> entry : slowestBeans.entrySet()) {
+				sb.append(String.format("%n  %s: %d ms", entry.getKey(), TimeUnit.NANOSECONDS.toMillis(entry.getValue())));
+			}
+		}
+		return sb.toString();
+	}
+
+}
@@ -24,11 +24,8 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.util.Assert;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.DispatcherServlet;
-import org.springframework.web.servlet.FlashMap;
 import org.springframework.web.servlet.HandlerExecutionChain;
-import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
-import org.springframework.web.servlet.support.RequestContextUtils;
 
 /**
  * A sub-class of DispatcherServlet that creates an {@link MvcResult} instance
@@ -36,7 +33,8 @@ import org.springframework.web.servlet.support.RequestContextUtils;
  * it as the request gets executed.
  *
  * <p>Use {@link #getMvcResult(HttpServletRequest)} to obtain the MvcResult for
- * an executed request.
+ * an executed request. A MockMvc in recycling mode stores a reset MvcResult
+ * in the request before it is executed, which is then used instead.
  *
  * @author Rossen Stoyanchev
  */
@@ -67,8 +65,10 @@ public class TestDispatcherServlet extends DispatcherServlet {
 		Assert.isInstanceOf(MockHttpServletResponse.class, response,
 				"Response should be MockHttpServletResponse" + response.getClass().getName());
 
-		request.setAttribute(MVC_RESULT_ATTRIBUTE,
-				new DefaultMvcResult((MockHttpServletRequest) request, (MockHttpServletResponse) response));
+		if (!(request.getAttribute(MVC_RESULT_ATTRIBUTE) instanceof DefaultMvcResult)) {
+			request.setAttribute(MVC_RESULT_ATTRIBUTE,
+					new DefaultMvcResult((MockHttpServletRequest) request, (MockHttpServletResponse) response));
+		}
 
 		super.doService(request, response);
 	}
@@ -105,70 +105,4 @@ public class TestDispatcherServlet extends DispatcherServlet {
 		return mav;
 	}
 
-	/**
-	 * A simple implementation of MvcResult with getters and setters.
-	 */
-	private static class DefaultMvcResult implements MvcResult {
-
-		private final MockHttpServletRequest request;
-
-		private final MockHttpServletResponse response;
-
-		private Object handler;
-
-		private HandlerInterceptor[] interceptors;
-
-		private ModelAndView mav;
-
-		private Exception resolvedException;
-
-		public DefaultMvcResult(MockHttpServletRequest request, MockHttpServletResponse response) {
-			this.request = request;
-			this.response = response;
-		}
-
-		public MockHttpServletRequest getRequest() {
-			return this.request;
-		}
-
-		public MockHttpServletResponse getResponse() {
-			return this.response;
-		}
-
-		public Object getHandler() {
-			return this.handler;
-		}
-
-		public void setHandler(Object handler) {
-			this.handler = handler;
-		}
-
-		public HandlerInterceptor[] getInterceptors() {
-			return this.interceptors;
-		}
-
-		public void setInterceptors(HandlerInterceptor[] interceptors) {
-			this.interceptors = interceptors;
-		}
-
-		public Exception getResolvedException() {
-			return this.resolvedException;
-		}
-
-		public void setResolvedException(Exception resolvedException) {
-			this.resolvedException = resolvedException;
-		}
-
-		public ModelAndView getModelAndView() {
-			return this.mav;
-		}
-
-		public void setModelAndView(ModelAndView mav) {
-			this.mav = mav;
-		}
-
-		public FlashMap getFlashMap() {
-			return RequestContextUtils.getOutputFlashMap(request);
-		}
-	}
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * A thread-safe histogram of latency values in nanoseconds.
+ *
+ * <p>Values are recorded into log-linear buckets: each power of two is split
+ * into 32 linear sub-buckets, which keeps the relative error of reported
+ * percentiles within about 3% while using a fixed amount of memory regardless
+ * of the number of recorded values.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+	private final AtomicLong totalCount = new AtomicLong();
+
+	private final AtomicLong totalValue = new AtomicLong();
+
+	private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+
+	private final AtomicLong maxValue = new AtomicLong();
+
+	/**
+	 * Record a latency value.
+	 * @param nanos the latency in nanoseconds; negative values are recorded as 0
+	 */
+	public void recordValue(long nanos) {
+		long value = (nanos < 0) ? 0 : nanos;
+		this.counts.incrementAndGet(getBucketIndex(value));
+		this.totalCount.incrementAndGet();
+		this.totalValue.addAndGet(value);
+		updateMin(value);
+		updateMax(value);
+	}
+
+	private void updateMin(long value) {
+		long current = this.minValue.get();
+		while (value < current && !this.minValue.compareAndSet(current, value)) {
+			current = this.minValue.get();
+		}
+	}
+
+	private void updateMax(long value) {
+		long current = this.maxValue.get();
+		while (value > current && !this.maxValue.compareAndSet(current, value)) {
+			current = this.maxValue.get();
+		}
+	}
+
+	/**
+	 * Return the number of recorded values.
+	 */
+	public long getTotalCount() {
+		return this.totalCount.get();
+	}
+
+	/**
+	 * Return the smallest recorded value in nanoseconds, or 0 if no values were recorded.
+	 */
+	public long getMinValue() {
+		return (getTotalCount() > 0) ? this.minValue.get() : 0;
+	}
+
+	/**
+	 * Return the largest recorded value in nanoseconds.
+	 */
+	public long getMaxValue() {
+		return this.maxValue.get();
+	}
+
+	/**
+	 * Return the mean of the recorded values in nanoseconds.
+	 */
+	public double getMean() {
+		long count = getTotalCount();
+		return (count > 0) ? (double) this.totalValue.get() / count : 0;
+	}
+
+	/**
+	 * Return the value in nanoseconds below which the given percentage of
+	 * recorded values fall, or 0 if no values were recorded.
+	 * @param percentile a percentile between 0 and 100, e.g. 99.9
+	 */
+	public long getValueAtPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+		long count = getTotalCount();
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long cumulative = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += this.counts.get(i);
+			if (cumulative >= target) {
+				return Math.min(getHighestValueInBucket(i), getMaxValue());
+			}
+		}
+		return getMaxValue();
+	}
+
+	/**
+	 * Return the 50th percentile (median) in nanoseconds.
+	 */
+	public long getP50() {
+		return getValueAtPercentile(50);
+	}
+
+	/**
+	 * Return the 99th percentile in nanoseconds.
+	 */
+	public long getP99() {
+		return getValueAtPercentile(99);
+	}
+
+	/**
+	 * Return the 99.9th percentile in nanoseconds.
+	 */
+	public long getP999() {
+		return getValueAtPercentile(99.9);
+	}
+
+	static int getBucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+		return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long getHighestValueInBucket(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+		int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+		long lowestValue = ((long) (SUB_BUCKET_COUNT + subBucket)) << shift;
+		return lowestValue + (1L << shift) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d, p50=%.3fms, p99=%.3fms, p999=%.3fms, max=%.3fms",
+				getTotalCount(), toMillis(getP50()), toMillis(getP99()), toMillis(getP999()), toMillis(getMaxValue()));
+	}
+
+	private static double toMillis(long nanos) {
+		return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.MvcResult;
+import org.springframework.test.web.server.RequestBuilder;
+import org.springframework.test.web.support.MockMvcExecutors;
+import org.springframework.util.Assert;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Drives requests through a {@link MockMvc} instance at a fixed target rate
+ * for a given duration and records latency histograms, both overall and per
+ * handler.
+ *
+ * <p>Requests are scheduled open-loop: the start time of each request is
+ * fixed up front from the target rate and does not depend on when earlier
+ * requests complete. Latency is measured from the intended start time rather
+ * than from the time the request actually started executing, so that time
+ * spent waiting for a busy executor is counted against the system under test
+ * instead of being omitted (i.e. correcting for "coordinated omission").
+ *
+ * <p>Example, assuming static imports of {@code MockMvcRequestBuilders.*}:
+ *
+ * <pre>
+ * LoadResult result = mockMvc.load(get("/person/1"))
+ *     .atRate(500)
+ *     .forDuration(10, TimeUnit.SECONDS)
+ *     .run();
+ *
+ * long p99 = result.getHistogram().getP99();
+ * </pre>
+ *
+ * @author Rossen Stoyanchev
+ * @see MockMvc#load(RequestBuilder)
+ */
+public class LoadGenerator {
+
+	private final MockMvc mockMvc;
+
+	private final RequestBuilder requestBuilder;
+
+	private int requestsPerSecond = 100;
+
+	private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+
+	private Executor executor;
+
+	/**
+	 * Class constructor. See {@link MockMvc#load(RequestBuilder)}.
+	 */
+	public LoadGenerator(MockMvc mockMvc, RequestBuilder requestBuilder) {
+		Assert.notNull(mockMvc, "'mockMvc' must not be null");
+		Assert.notNull(requestBuilder, "'requestBuilder' must not be null");
+		this.mockMvc = mockMvc;
+		this.requestBuilder = requestBuilder;
+	}
+
+	/**
+	 * Set the target number of requests to start per second.
+	 * The default is 100.
+	 */
+	public LoadGenerator atRate(int requestsPerSecond) {
+		Assert.isTrue(requestsPerSecond > 0, "The request rate must be greater than 0");
+		this.requestsPerSecond = requestsPerSecond;
+		return this;
+	}
+
+	/**
+	 * Set for how long to keep starting requests. The default is 10 seconds.
+	 */
+	public LoadGenerator forDuration(long duration, TimeUnit timeUnit) {
+		Assert.isTrue(duration > 0, "The duration must be greater than 0");
+		Assert.notNull(timeUnit, "'timeUnit' must not be null");
+		this.durationNanos = timeUnit.toNanos(duration);
+		return this;
+	}
+
+	/**
+	 * Set the executor to execute requests with. By default a fixed thread
+	 * pool with as many threads as there are available processors is created
+	 * for each run and shut down at the end of it.
+	 */
+	public LoadGenerator usingExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Start requests at the target rate for the configured duration, wait for
+	 * all of them to complete, and return the recorded results.
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public LoadResult run() throws InterruptedException {
+
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / this.requestsPerSecond;
+		int requestCount = (int) Math.max(1, this.durationNanos / intervalNanos);
+
+		ExecutorService executorToShutdown = null;
+		Executor executorToUse = this.executor;
+		if (executorToUse == null) {
+			executorToShutdown = createDefaultExecutor();
+			executorToUse = executorToShutdown;
+		}
+
+		LoadResult result = new LoadResult();
+		CountDownLatch latch = new CountDownLatch(requestCount);
+		AtomicInteger errorCount = new AtomicInteger();
+
+		long startTime = System.nanoTime();
+		try {
+			for (int i = 0; i < requestCount; i++) {
+				long intendedStartTime = startTime + i * intervalNanos;
+				waitUntil(intendedStartTime);
+				executorToUse.execute(new RequestTask(intendedStartTime, result, errorCount, latch));
+			}
+			latch.await();
+		}
+		finally {
+			if (executorToShutdown != null) {
+				executorToShutdown.shutdownNow();
+			}
+		}
+
+		result.setElapsedNanos(System.nanoTime() - startTime);
+		result.setErrorCount(errorCount.get());
+		return result;
+	}
+
+	private static void waitUntil(long nanoTime) throws InterruptedException {
+		long remaining = nanoTime - System.nanoTime();
+		while (remaining > 0) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			remaining = nanoTime - System.nanoTime();
+		}
+	}
+
+	private static ExecutorService createDefaultExecutor() {
+		return MockMvcExecutors.newFixedThreadPool("MockMvcLoad-");
+	}
+
+	/**
+	 * Return a key that identifies the handler of an executed request.
+	 */
+	static String getHandlerKey(Object handler) {
+		if (handler == null) {
+			return "[no handler]";
+		}
+		if (handler instanceof HandlerMethod) {
+			HandlerMethod handlerMethod = (HandlerMethod) handler;
+			return handlerMethod.getBeanType().getName() + "#" + handlerMethod.getMethod().getName();
+		}
+		return handler.getClass().getName();
+	}
+
+
+	private class RequestTask implements Runnable {
+
+		private final long intendedStartTime;
+
+		private final LoadResult result;
+
+		private final AtomicInteger errorCount;
+
+		private final CountDownLatch latch;
+
+		public RequestTask(long intendedStartTime, LoadResult result, AtomicInteger errorCount, CountDownLatch latch) {
+			this.intendedStartTime = intendedStartTime;
+			this.result = result;
+			this.errorCount = errorCount;
+			this.latch = latch;
+		}
+
+		public void run() {
+			try {
+				MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+				long latency = System.nanoTime() - this.intendedStartTime;
+				this.result.recordLatency(getHandlerKey(mvcResult.getHandler()), latency);
+			}
+			catch (Throwable ex) {
+				this.errorCount.incrementAndGet();
+			}
+			finally {
+				this.latch.countDown();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The results of a {@link LoadGenerator} run: an overall latency histogram,
+ * a latency histogram per handler, the number of failed requests, and the
+ * achieved throughput.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class LoadResult {
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	private final ConcurrentMap<String, LatencyHistogram> handlerHistograms =
+			new ConcurrentHashMap<String, LatencyHistogram>();
+
+	private long elapsedNanos;
+
+	private int errorCount;
+
+	void recordLatency(String handlerKey, long nanos) {
+		this.histogram.recordValue(nanos);
+		LatencyHistogram handlerHistogram = this.handlerHistograms.get(handlerKey);
+		if (handlerHistogram == null) {
+			handlerHistogram = new LatencyHistogram();
+			LatencyHistogram existing = this.handlerHistograms.putIfAbsent(handlerKey, handlerHistogram);
+			if (existing != null) {
+				handlerHistogram = existing;
+			}
+		}
+		handlerHistogram.recordValue(nanos);
+	}
+
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	void setErrorCount(int errorCount) {
+		this.errorCount = errorCount;
+	}
+
+	/**
+	 * Return the latency histogram of all successfully completed requests.
+	 */
+	public LatencyHistogram getHistogram() {
+		return this.histogram;
+	}
+
+	/**
+	 * Return latency histograms keyed by handler. For annotated controllers
+	 * the key is the fully qualified name of the controller class followed by
+	 * "#" and the name of the handler method.
+	 */
+	public Map<String, LatencyHistogram> getHandlerHistograms() {
+		return Collections.unmodifiableMap(new TreeMap<String, LatencyHistogram>(this.handlerHistograms));
+	}
+
+	/**
+	 * Return the number of requests that completed successfully.
+	 */
+	public long getCompletedCount() {
+		return this.histogram.getTotalCount();
+	}
+
+	/**
+	 * Return the number of requests that failed with an exception.
+	 */
+	public int getErrorCount() {
+		return this.errorCount;
+	}
+
+	/**
+	 * Return the time from the start of the first request until the
+	 * completion of the last one.
+	 */
+	public long getElapsedTime(TimeUnit timeUnit) {
+		return timeUnit.convert(this.elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Return the achieved throughput in completed requests per second.
+	 */
+	public double getThroughput() {
+		return (this.elapsedNanos > 0) ?
+				getCompletedCount() * (double) TimeUnit.SECONDS.toNanos(1) / this.elapsedNanos : 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("throughput=%.1f/s, errors=%d, %s", getThroughput(), getErrorCount(), this.histogram));
+		for (Map.Entry<String, LatencyHistogram> entry : getHandlerHistograms().entrySet()) {
+			sb.append(String.format("%n  %s: %s", entry.getKey(), entry.getValue()));
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Contains support for driving requests through a
+ * {@link org.springframework.test.web.server.MockMvc} instance at a target
+ * rate and recording latency histograms per handler. The main entry point is
+ * {@link org.springframework.test.web.server.MockMvc#load(org.springframework.test.web.server.RequestBuilder)}.
+ */
+package org.springframework.test.web.server.load;
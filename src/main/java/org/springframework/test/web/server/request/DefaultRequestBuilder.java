@@ -16,6 +16,8 @@
 
 package org.springframework.test.web.server.request;
 
+import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.security.Principal;
 import java.util.Arrays;
@@ -25,6 +27,9 @@ import java.util.Map;
 import javax.servlet.ServletContext;
 import javax.servlet.http.Cookie;
 
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -54,6 +59,8 @@ public class DefaultRequestBuilder implements RequestBuilder {
 
 	private byte[] requestBody;
 
+	private Resource requestBodyResource;
+
 	private Cookie[] cookies;
 
 	private Locale locale;
@@ -98,9 +105,42 @@ public class DefaultRequestBuilder implements RequestBuilder {
 
 	public DefaultRequestBuilder body(byte[] requestBody) {
 		this.requestBody = requestBody;
+		this.requestBodyResource = null;
 		return this;
 	}
 
+	/**
+	 * Use the content of the given stream as the request body. The stream is
+	 * read when the application reads the body, so the request can be built
+	 * only once.
+	 */
+	public DefaultRequestBuilder body(InputStream requestBody) {
+		Assert.notNull(requestBody, "'requestBody' must not be null");
+		return body(new InputStreamResource(requestBody));
+	}
+
+	/**
+	 * Use the content of the given resource as the request body. The resource
+	 * is opened when the application reads the body and its content is never
+	 * copied as a whole. Resources in the file system of 1MB or more are
+	 * memory-mapped.
+	 */
+	public DefaultRequestBuilder body(Resource requestBody) {
+		Assert.notNull(requestBody, "'requestBody' must not be null");
+		this.requestBody = null;
+		this.requestBodyResource = requestBody;
+		return this;
+	}
+
+	/**
+	 * Use the content of the given file as the request body.
+	 * @see #body(Resource)
+	 */
+	public DefaultRequestBuilder body(File requestBody) {
+		Assert.notNull(requestBody, "'requestBody' must not be null");
+		return body(new FileSystemResource(requestBody));
+	}
+
 	public DefaultRequestBuilder header(String name, Object value, Object... values) {
 		addToMultiValueMap(headers, name, value, values);
 		return this;
@@ -167,6 +207,10 @@ public class DefaultRequestBuilder implements RequestBuilder {
 	public MockHttpServletRequest buildRequest(ServletContext servletContext) {
 
 		MockHttpServletRequest request = createServletRequest(servletContext);
+		if (requestBodyResource != null) {
+			Assert.state(request instanceof StreamingMockHttpServletRequest,
+					"Request bodies from a stream or resource are not supported by " + getClass().getName());
+		}
 
 		request.setMethod(method.name());
 		request.setRequestURI(uri.toString());
@@ -204,6 +248,20 @@ public class DefaultRequestBuilder implements RequestBuilder {
 		return request;
 	}
 
+	/**
+	 * Create an immutable {@link RequestTemplate} from the current state of
+	 * this builder. Further changes to the builder do not affect the template.
+	 * <p>The template creates requests from a copy of the builder's state and
+	 * does not call {@link #createServletRequest(ServletContext)}, so it is
+	 * not supported by subclasses other than {@link MultipartRequestBuilder}.
+	 * @throws IllegalStateException if invoked on another subclass
+	 */
+	public RequestTemplate toTemplate() {
+		Assert.state(getClass() == DefaultRequestBuilder.class || getClass() == MultipartRequestBuilder.class,
+				"Request templates are not supported by " + getClass().getName());
+		return new RequestTemplate(this);
+	}
+
 	/**
 	 * Creates a new {@link MockHttpServletRequest} based on the given {@link ServletContext}. Can be overridden in
 	 * subclasses.
@@ -212,9 +270,76 @@ public class DefaultRequestBuilder implements RequestBuilder {
 	 * @return the created mock request
 	 */
 	protected MockHttpServletRequest createServletRequest(ServletContext servletContext) {
+		if (this.requestBodyResource != null) {
+			return new StreamingMockHttpServletRequest(servletContext, this.requestBodyResource);
+		}
 		return new MockHttpServletRequest(servletContext);
 	}
 
+	HttpMethod getMethod() {
+		return this.method;
+	}
+
+	URI getUri() {
+		return this.uri;
+	}
+
+	MultiValueMap<String, String> getParameters() {
+		return this.parameters;
+	}
+
+	MultiValueMap<String, Object> getHeaders() {
+		return this.headers;
+	}
+
+	String getContentType() {
+		return this.contentType;
+	}
+
+	byte[] getRequestBody() {
+		return this.requestBody;
+	}
+
+	Resource getRequestBodyResource() {
+		return this.requestBodyResource;
+	}
+
+	Cookie[] getCookies() {
+		return this.cookies;
+	}
+
+	Locale getLocale() {
+		return this.locale;
+	}
+
+	String getCharacterEncoding() {
+		return this.characterEncoding;
+	}
+
+	Map<String, Object> getAttributes() {
+		return this.attributes;
+	}
+
+	Map<String, Object> getSessionAttributes() {
+		return this.sessionAttributes;
+	}
+
+	Principal getPrincipal() {
+		return this.principal;
+	}
+
+	String getContextPath() {
+		return this.contextPath;
+	}
+
+	String getServletPath() {
+		return this.servletPath;
+	}
+
+	String getPathInfo() {
+		return this.pathInfo;
+	}
+
 	private static <T> void addToMultiValueMap(MultiValueMap<String, T> map, String name, T value, T[] values) {
 		Assert.hasLength(name, "'name' must not be empty");
 		Assert.notNull(value, "'value' must not be null");
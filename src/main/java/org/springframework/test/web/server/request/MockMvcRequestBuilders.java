@@ -1,6 +1,8 @@
 package org.springframework.test.web.server.request;
 
 import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.http.HttpMethod;
 import org.springframework.test.web.server.RequestBuilder;
@@ -17,6 +19,18 @@ import org.springframework.web.util.UriTemplate;
  */
 public abstract class MockMvcRequestBuilders {
 
+	/**
+	 * The maximum number of URL templates for which parsed templates, or
+	 * expanded URIs for templates without variables, are cached. Further
+	 * templates are parsed on every use.
+	 */
+	static final int MAX_CACHED_TEMPLATES = 512;
+
+	private static final ConcurrentMap<String, UriTemplate> uriTemplateCache =
+			new ConcurrentHashMap<String, UriTemplate>();
+
+	private static final ConcurrentMap<String, URI> uriCache = new ConcurrentHashMap<String, URI>();
+
 	private MockMvcRequestBuilders() {
 	}
 
@@ -46,8 +60,24 @@ public abstract class MockMvcRequestBuilders {
 		return new DefaultRequestBuilder(url, method);
 	}
 
-	private static URI expandUrl(String urlTemplate, Object[] urlVariables) {
-		UriTemplate uriTemplate = new UriTemplate(urlTemplate);
+	static URI expandUrl(String urlTemplate, Object[] urlVariables) {
+		if (urlTemplate.indexOf('{') == -1) {
+			URI uri = uriCache.get(urlTemplate);
+			if (uri == null) {
+				uri = new UriTemplate(urlTemplate).expand();
+				if (uriCache.size() < MAX_CACHED_TEMPLATES) {
+					uriCache.put(urlTemplate, uri);
+				}
+			}
+			return uri;
+		}
+		UriTemplate uriTemplate = uriTemplateCache.get(urlTemplate);
+		if (uriTemplate == null) {
+			uriTemplate = new UriTemplate(urlTemplate);
+			if (uriTemplateCache.size() < MAX_CACHED_TEMPLATES) {
+				uriTemplateCache.put(urlTemplate, uriTemplate);
+			}
+		}
 		return uriTemplate.expand(urlVariables);
 	}
 
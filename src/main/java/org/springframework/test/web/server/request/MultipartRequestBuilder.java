@@ -64,6 +64,10 @@ public class MultipartRequestBuilder extends DefaultRequestBuilder {
 		return this;
 	}
 
+	List<MockMultipartFile> getFiles() {
+		return this.files;
+	}
+
 	@Override
 	protected final MockHttpServletRequest createServletRequest(ServletContext servletContext) {
 		MockMultipartHttpServletRequest request = new MockMultipartHttpServletRequest();
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.request;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockMultipartHttpServletRequest;
+import org.springframework.test.web.server.RequestBuilder;
+import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * An immutable snapshot of a {@link DefaultRequestBuilder} that creates
+ * requests without going through the maps of the builder. Parameters,
+ * headers, and attributes are flattened into arrays when the template is
+ * created. A template can be shared by any number of threads, e.g. the
+ * workers of a load test, and the URI or the body can be varied per request:
+ *
+ * <pre>
+ * RequestTemplate template = post("/person").contentType(MediaType.APPLICATION_JSON).toTemplate();
+ *
+ * mockMvc.perform(template.withBody(json));
+ * mockMvc.perform(template.withUri("/person/{id}", id));
+ * </pre>
+ *
+ * <p>Cookies are copied for each request. Attribute values and multipart
+ * files are shared by all requests created from the template. A request
+ * body from a {@link Resource} is opened again for each request, unless
+ * overridden with {@link #withBody(byte[])}, while a body from an
+ * {@code InputStream} can be read by one request only.
+ *
+ * @author Rossen Stoyanchev
+ * @see DefaultRequestBuilder#toTemplate()
+ */
+public final class RequestTemplate implements RequestBuilder {
+
+	private final String method;
+
+	private final URI uri;
+
+	private final String[] parameterNames;
+
+	private final String[][] parameterValues;
+
+	private final String[] headerNames;
+
+	private final Object[] headerValues;
+
+	private final String[] attributeNames;
+
+	private final Object[] attributeValues;
+
+	private final String[] sessionAttributeNames;
+
+	private final Object[] sessionAttributeValues;
+
+	private final String contentType;
+
+	private final byte[] requestBody;
+
+	private final Resource requestBodyResource;
+
+	private final Cookie[] cookies;
+
+	private final Locale locale;
+
+	private final String characterEncoding;
+
+	private final Principal principal;
+
+	private final String contextPath;
+
+	private final String servletPath;
+
+	private final String pathInfo;
+
+	private final MockMultipartFile[] files;
+
+	RequestTemplate(DefaultRequestBuilder builder) {
+		this.method = builder.getMethod().name();
+		this.uri = builder.getUri();
+
+		MultiValueMap<String, String> parameters = builder.getParameters();
+		this.parameterNames = parameters.keySet().toArray(new String[parameters.size()]);
+		this.parameterValues = new String[this.parameterNames.length][];
+		for (int i = 0; i < this.parameterNames.length; i++) {
+			List<String> values = parameters.get(this.parameterNames[i]);
+			this.parameterValues[i] = values.toArray(new String[values.size()]);
+		}
+
+		List<String> headerNames = new ArrayList<String>();
+		List<Object> headerValues = new ArrayList<Object>();
+		for (Map.Entry<String, List<Object>> entry : builder.getHeaders().entrySet()) {
+			for (Object value : entry.getValue()) {
+				headerNames.add(entry.getKey());
+				headerValues.add(value);
+			}
+		}
+		this.headerNames = headerNames.toArray(new String[headerNames.size()]);
+		this.headerValues = headerValues.toArray();
+
+		Map<String, Object> attributes = builder.getAttributes();
+		this.attributeNames = attributes.keySet().toArray(new String[attributes.size()]);
+		this.attributeValues = attributes.values().toArray();
+
+		Map<String, Object> sessionAttributes = builder.getSessionAttributes();
+		this.sessionAttributeNames = sessionAttributes.keySet().toArray(new String[sessionAttributes.size()]);
+		this.sessionAttributeValues = sessionAttributes.values().toArray();
+
+		this.contentType = builder.getContentType();
+		this.requestBody = (builder.getRequestBody() != null) ? builder.getRequestBody().clone() : null;
+		this.requestBodyResource = builder.getRequestBodyResource();
+		this.cookies = (builder.getCookies() != null) ? copyCookies(builder.getCookies()) : null;
+		this.locale = builder.getLocale();
+		this.characterEncoding = builder.getCharacterEncoding();
+		this.principal = builder.getPrincipal();
+		this.contextPath = builder.getContextPath();
+		this.servletPath = builder.getServletPath();
+		this.pathInfo = builder.getPathInfo();
+
+		if (builder instanceof MultipartRequestBuilder) {
+			Assert.state(this.requestBodyResource == null,
+					"Request bodies from a stream or resource are not supported for multipart requests");
+			List<MockMultipartFile> files = ((MultipartRequestBuilder) builder).getFiles();
+			this.files = files.toArray(new MockMultipartFile[files.size()]);
+		}
+		else {
+			this.files = null;
+		}
+	}
+
+	/**
+	 * Return a RequestBuilder for a request to the given URL instead of the
+	 * URL of the template.
+	 * @param urlTemplate a URL template, e.g. "/person/{id}"
+	 * @param urlVariables the values to expand the URL template with
+	 */
+	public RequestBuilder withUri(String urlTemplate, Object... urlVariables) {
+		return with(MockMvcRequestBuilders.expandUrl(urlTemplate, urlVariables), this.requestBody);
+	}
+
+	/**
+	 * Return a RequestBuilder for a request with the given body instead of
+	 * the body of the template. The array is not copied.
+	 */
+	public RequestBuilder withBody(byte[] requestBody) {
+		return with(this.uri, requestBody);
+	}
+
+	/**
+	 * Return a RequestBuilder for a request with the given URI and body.
+	 * The array is not copied.
+	 */
+	public RequestBuilder with(final URI uri, final byte[] requestBody) {
+		return new RequestBuilder() {
+			public MockHttpServletRequest buildRequest(ServletContext servletContext) {
+				return RequestTemplate.this.buildRequest(servletContext, uri, requestBody);
+			}
+		};
+	}
+
+	public MockHttpServletRequest buildRequest(ServletContext servletContext) {
+		return buildRequest(servletContext, this.uri, this.requestBody);
+	}
+
+	private MockHttpServletRequest buildRequest(ServletContext servletContext, URI uri, byte[] requestBody) {
+
+		MockHttpServletRequest request = createServletRequest(servletContext, requestBody);
+
+		request.setMethod(this.method);
+		request.setRequestURI(uri.toString());
+
+		for (int i = 0; i < this.parameterNames.length; i++) {
+			request.setParameter(this.parameterNames[i], this.parameterValues[i].clone());
+		}
+		for (int i = 0; i < this.headerNames.length; i++) {
+			request.addHeader(this.headerNames[i], this.headerValues[i]);
+		}
+		for (int i = 0; i < this.attributeNames.length; i++) {
+			request.setAttribute(this.attributeNames[i], this.attributeValues[i]);
+		}
+		if (this.sessionAttributeNames.length > 0) {
+			HttpSession session = request.getSession();
+			for (int i = 0; i < this.sessionAttributeNames.length; i++) {
+				session.setAttribute(this.sessionAttributeNames[i], this.sessionAttributeValues[i]);
+			}
+		}
+
+		request.setContentType(this.contentType);
+		request.setContent(requestBody);
+		request.setCookies((this.cookies != null) ? copyCookies(this.cookies) : null);
+		request.setCharacterEncoding(this.characterEncoding);
+		request.setUserPrincipal(this.principal);
+		request.setContextPath(this.contextPath);
+		request.setServletPath(this.servletPath);
+		request.setPathInfo(this.pathInfo);
+
+		if (this.locale != null) {
+			request.addPreferredLocale(this.locale);
+		}
+
+		return request;
+	}
+
+	private MockHttpServletRequest createServletRequest(ServletContext servletContext, byte[] requestBody) {
+		if (requestBody == null && this.requestBodyResource != null) {
+			return new StreamingMockHttpServletRequest(servletContext, this.requestBodyResource);
+		}
+		if (this.files == null) {
+			return new MockHttpServletRequest(servletContext);
+		}
+		MockMultipartHttpServletRequest request = new MockMultipartHttpServletRequest();
+		for (MockMultipartFile file : this.files) {
+			request.addFile(file);
+		}
+		return request;
+	}
+
+	private static Cookie[] copyCookies(Cookie[] cookies) {
+		Cookie[] result = new Cookie[cookies.length];
+		for (int i = 0; i < cookies.length; i++) {
+			result[i] = (Cookie) cookies[i].clone();
+		}
+		return result;
+	}
+
+}
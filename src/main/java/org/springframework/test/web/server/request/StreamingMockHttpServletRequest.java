@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.request;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.support.ByteBufferInputStream;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * A {@link MockHttpServletRequest} that reads its body from a {@link Resource}
+ * when the input stream or reader is first requested, rather than holding it
+ * in a byte array. Files of {@link #MAPPED_BODY_THRESHOLD} bytes or more are
+ * memory-mapped.
+ *
+ * @author Rossen Stoyanchev
+ */
+class StreamingMockHttpServletRequest extends MockHttpServletRequest {
+
+	/**
+	 * The size in bytes from which request bodies in files are memory-mapped.
+	 */
+	static final int MAPPED_BODY_THRESHOLD = 1024 * 1024;
+
+	private final Resource body;
+
+	private ServletInputStream inputStream;
+
+	private BufferedReader reader;
+
+	public StreamingMockHttpServletRequest(ServletContext servletContext, Resource body) {
+		super(servletContext);
+		this.body = body;
+	}
+
+	@Override
+	public int getContentLength() {
+		File file = getBodyFile();
+		return (file != null && file.length() <= Integer.MAX_VALUE) ? (int) file.length() : -1;
+	}
+
+	@Override
+	public ServletInputStream getInputStream() throws IOException {
+		if (this.inputStream == null) {
+			this.inputStream = new DelegatingServletInputStream(openBody());
+		}
+		return this.inputStream;
+	}
+
+	@Override
+	public BufferedReader getReader() throws IOException {
+		if (this.reader == null) {
+			String encoding = (getCharacterEncoding() != null) ?
+					getCharacterEncoding() : WebUtils.DEFAULT_CHARACTER_ENCODING;
+			this.reader = new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+		}
+		return this.reader;
+	}
+
+	private InputStream openBody() throws IOException {
+		File file = getBodyFile();
+		if (file != null && file.length() >= MAPPED_BODY_THRESHOLD && file.length() <= Integer.MAX_VALUE) {
+			return new ByteBufferInputStream(ByteBufferInputStream.map(file));
+		}
+		return this.body.getInputStream();
+	}
+
+	private File getBodyFile() {
+		try {
+			return this.body.getFile();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+}
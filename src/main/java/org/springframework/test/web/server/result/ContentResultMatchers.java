@@ -30,6 +30,7 @@ import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.server.MvcResult;
+import org.springframework.test.web.server.MvcResultContent;
 import org.springframework.test.web.server.ResultMatcher;
 import org.springframework.test.web.support.XmlExpectationsHelper;
 import org.w3c.dom.Node;
@@ -85,7 +86,7 @@ public class ContentResultMatchers {
 	public ResultMatcher string(final Matcher<? super String> matcher) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				MatcherAssert.assertThat("Response content", result.getResponse().getContentAsString(), matcher);
+				MatcherAssert.assertThat("Response content", MvcResultContent.getContentAsString(result), matcher);
 			}
 		};
 	}
@@ -103,7 +104,7 @@ public class ContentResultMatchers {
 	public ResultMatcher bytes(final byte[] expectedContent) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				byte[] content = result.getResponse().getContentAsByteArray();
+				byte[] content = MvcResultContent.getContentAsByteArray(result);
 				MatcherAssert.assertThat("Response content", content, Matchers.equalTo(expectedContent));
 			}
 		};
@@ -122,7 +123,7 @@ public class ContentResultMatchers {
 	public ResultMatcher xml(final String xmlContent) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
+				String content = MvcResultContent.getContentAsString(result);
 				ContentResultMatchers.this.xmlHelper.assertXmlEqual(xmlContent, content);
 			}
 		};
@@ -137,7 +138,7 @@ public class ContentResultMatchers {
 	public ResultMatcher node(final Matcher<? super Node> matcher) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
+				String content = MvcResultContent.getContentAsString(result);
 				ContentResultMatchers.this.xmlHelper.assertNode(content, matcher);
 			}
 		};
@@ -150,7 +151,7 @@ public class ContentResultMatchers {
 	public ResultMatcher source(final Matcher<? super Source> matcher) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
+				String content = MvcResultContent.getContentAsString(result);
 				ContentResultMatchers.this.xmlHelper.assertSource(content, matcher);
 			}
 		};
@@ -19,6 +19,7 @@ package org.springframework.test.web.server.result;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 import org.springframework.test.web.server.MvcResult;
+import org.springframework.test.web.server.MvcResultContent;
 import org.springframework.test.web.server.ResultMatcher;
 import org.springframework.test.web.support.JsonPathExpectationsHelper;
 
@@ -49,8 +50,14 @@ public class JsonPathResultMatchers {
 	public <T> ResultMatcher value(final Matcher<T> matcher) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
-				JsonPathResultMatchers.this.jsonPathHelper.assertValue(content, matcher);
+				String content = MvcResultContent.getContentAsString(result);
+				if (JsonPathResultMatchers.this.jsonPathHelper.isStreamable(content)) {
+					JsonPathResultMatchers.this.jsonPathHelper.assertValue(content, matcher);
+				}
+				else {
+					Object json = MvcResultContent.getContentAsJson(result);
+					JsonPathResultMatchers.this.jsonPathHelper.assertValueInJson(json, matcher);
+				}
 			}
 		};
 	}
@@ -68,8 +75,14 @@ public class JsonPathResultMatchers {
 	public ResultMatcher exists() {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
-				JsonPathResultMatchers.this.jsonPathHelper.exists(content);
+				String content = MvcResultContent.getContentAsString(result);
+				if (JsonPathResultMatchers.this.jsonPathHelper.isStreamable(content)) {
+					JsonPathResultMatchers.this.jsonPathHelper.exists(content);
+				}
+				else {
+					Object json = MvcResultContent.getContentAsJson(result);
+					JsonPathResultMatchers.this.jsonPathHelper.existsInJson(json);
+				}
 			}
 		};
 	}
@@ -80,8 +93,14 @@ public class JsonPathResultMatchers {
 	public ResultMatcher doesNotExist() {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
-				JsonPathResultMatchers.this.jsonPathHelper.doesNotExist(content);
+				String content = MvcResultContent.getContentAsString(result);
+				if (JsonPathResultMatchers.this.jsonPathHelper.isStreamable(content)) {
+					JsonPathResultMatchers.this.jsonPathHelper.doesNotExist(content);
+				}
+				else {
+					Object json = MvcResultContent.getContentAsJson(result);
+					JsonPathResultMatchers.this.jsonPathHelper.doesNotExistInJson(json);
+				}
 			}
 		};
 	}
@@ -18,6 +18,8 @@ package org.springframework.test.web.server.result;
 
 import static org.springframework.test.web.AssertionErrors.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.xml.xpath.XPathExpressionException;
@@ -25,6 +27,7 @@ import javax.xml.xpath.XPathExpressionException;
 import org.hamcrest.Matcher;
 import org.springframework.test.web.server.MvcResult;
 import org.springframework.test.web.server.ResultMatcher;
+import org.springframework.util.Assert;
 
 /**
  * The main class to import to access all available {@link ResultMatcher}s.
@@ -93,6 +96,63 @@ public abstract class MockMvcResultMatchers {
 		};
 	}
 	
+	/**
+	 * Combine several expectations into one. All of them are evaluated, even
+	 * if some fail, and all failures are reported together in a single
+	 * {@link AssertionError}. If exactly one expectation fails, its error is
+	 * rethrown as is. For example:
+	 * <pre>
+	 * mockMvc.perform(get("/person/1"))
+	 *   .andExpect(matchAll(
+	 *       status().isOk(),
+	 *       content().type(MediaType.APPLICATION_JSON),
+	 *       jsonPath("$.person.name").value("Jason"),
+	 *       jsonPath("$.person.age").value(42)));
+	 * </pre>
+	 */
+	public static ResultMatcher matchAll(final ResultMatcher... matchers) {
+		Assert.notNull(matchers, "'matchers' must not be null");
+		return new ResultMatcher() {
+			public void match(MvcResult result) throws Exception {
+				List<Throwable> failures = new ArrayList<Throwable>();
+				for (ResultMatcher matcher : matchers) {
+					try {
+						matcher.match(result);
+					}
+					catch (AssertionError error) {
+						failures.add(error);
+					}
+					catch (Exception ex) {
+						failures.add(ex);
+					}
+				}
+				if (failures.isEmpty()) {
+					return;
+				}
+				if (failures.size() == 1) {
+					Throwable failure = failures.get(0);
+					if (failure instanceof AssertionError) {
+						throw (AssertionError) failure;
+					}
+					throw (Exception) failure;
+				}
+				StringBuilder sb = new StringBuilder();
+				sb.append(failures.size()).append(" of ").append(matchers.length).append(" expectations failed:");
+				for (int i = 0; i < failures.size(); i++) {
+					Throwable failure = failures.get(i);
+					sb.append("\n[").append(i + 1).append("] ");
+					if (!(failure instanceof AssertionError)) {
+						sb.append(failure.getClass().getName()).append(": ");
+					}
+					sb.append(failure.getMessage());
+				}
+				AssertionError error = new AssertionError(sb.toString());
+				error.initCause(failures.get(0));
+				throw error;
+			}
+		};
+	}
+
 	/**
 	 * TODO
 	 */
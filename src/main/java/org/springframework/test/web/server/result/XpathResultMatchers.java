@@ -23,6 +23,7 @@ import javax.xml.xpath.XPathExpressionException;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 import org.springframework.test.web.server.MvcResult;
+import org.springframework.test.web.server.MvcResultContent;
 import org.springframework.test.web.server.ResultMatcher;
 import org.springframework.test.web.support.XpathExpectationsHelper;
 import org.w3c.dom.Node;
@@ -48,7 +49,7 @@ public class XpathResultMatchers {
 	public ResultMatcher node(final Matcher<? super Node> matcher) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
+				String content = MvcResultContent.getContentAsString(result);
 				XpathResultMatchers.this.xpathHelper.assertNode(content, matcher);
 			}
 		};
@@ -58,14 +59,24 @@ public class XpathResultMatchers {
 	 * TODO
 	 */
 	public ResultMatcher exists() {
-		return node(Matchers.notNullValue());
+		return new ResultMatcher() {
+			public void match(MvcResult result) throws Exception {
+				String content = MvcResultContent.getContentAsString(result);
+				XpathResultMatchers.this.xpathHelper.exists(content);
+			}
+		};
 	}
 
 	/**
 	 * TODO
 	 */
 	public ResultMatcher doesNotExist() {
-		return node(Matchers.nullValue());
+		return new ResultMatcher() {
+			public void match(MvcResult result) throws Exception {
+				String content = MvcResultContent.getContentAsString(result);
+				XpathResultMatchers.this.xpathHelper.doesNotExist(content);
+			}
+		};
 	}
 	
 	/**
@@ -74,7 +85,7 @@ public class XpathResultMatchers {
 	public ResultMatcher nodeCount(final Matcher<Integer> matcher) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
+				String content = MvcResultContent.getContentAsString(result);
 				XpathResultMatchers.this.xpathHelper.assertNodeCount(content, matcher);
 			}
 		};
@@ -93,7 +104,7 @@ public class XpathResultMatchers {
 	public ResultMatcher string(final Matcher<? super String> matcher) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
+				String content = MvcResultContent.getContentAsString(result);
 				XpathResultMatchers.this.xpathHelper.assertString(content, matcher);
 			}
 		};
@@ -112,7 +123,7 @@ public class XpathResultMatchers {
 	public ResultMatcher number(final Matcher<? super Double> matcher) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
+				String content = MvcResultContent.getContentAsString(result);
 				XpathResultMatchers.this.xpathHelper.assertNumber(content, matcher);
 			}
 		};
@@ -131,7 +142,7 @@ public class XpathResultMatchers {
 	public ResultMatcher booleanValue(final Boolean value) {
 		return new ResultMatcher() {
 			public void match(MvcResult result) throws Exception {
-				String content = result.getResponse().getContentAsString();
+				String content = MvcResultContent.getContentAsString(result);
 				XpathResultMatchers.this.xpathHelper.assertBoolean(content, value);
 			}
 		};
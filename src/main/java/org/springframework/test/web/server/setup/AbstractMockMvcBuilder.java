@@ -16,6 +16,9 @@
 
 package org.springframework.test.web.server.setup;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
@@ -23,7 +26,9 @@ import javax.servlet.ServletException;
 import org.springframework.core.NestedRuntimeException;
 import org.springframework.mock.web.MockServletConfig;
 import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.StartupReport;
 import org.springframework.test.web.server.TestDispatcherServlet;
+import org.springframework.test.web.support.MockMvcExecutors;
 import org.springframework.web.context.WebApplicationContext;
 
 /**
@@ -33,14 +38,76 @@ import org.springframework.web.context.WebApplicationContext;
  */
 public abstract class AbstractMockMvcBuilder implements MockMvcBuilder {
 
+	private boolean profileStartup;
+
+	private StartupProfiler startupProfiler;
+
+	/**
+	 * Record how long each phase of {@link #build()} takes and, for builders
+	 * that refresh an application context created by {@link MockMvcBuilders},
+	 * how long each bean takes to be created. The resulting report is available through
+	 * {@link MockMvc#getStartupReport()}. A MockMvc obtained from a
+	 * {@link MockMvcCache} has the report of the build that created it.
+	 */
+	public AbstractMockMvcBuilder profileStartup() {
+		this.profileStartup = true;
+		return this;
+	}
+
+	/**
+	 * Whether {@link #profileStartup()} was called.
+	 */
+	boolean isProfileStartup() {
+		return this.profileStartup;
+	}
+
 	/**
 	 * Build a {@link MockMvc} instance.
 	 */
-	public final MockMvc build() {
+	public MockMvc build() {
+		this.startupProfiler = this.profileStartup ? new StartupProfiler() : null;
 
+		long startNanos = System.nanoTime();
 		ServletContext servletContext = initServletContext();
+		recordPhase("initServletContext", startNanos);
+
+		startNanos = System.nanoTime();
 		WebApplicationContext wac = initWebApplicationContext(servletContext);
+		recordPhase("initWebApplicationContext", startNanos);
+
+		startNanos = System.nanoTime();
+		TestDispatcherServlet dispatcherServlet = initDispatcherServlet(servletContext, wac);
+		recordPhase("initDispatcherServlet", startNanos);
+
+		StartupReport startupReport = (this.startupProfiler != null) ? this.startupProfiler.createReport() : null;
+		this.startupProfiler = null;
+
+		return createMockMvc(dispatcherServlet, startupReport);
+	}
+
+	/**
+	 * Build a {@link MockMvc} instance asynchronously using a default executor
+	 * with as many threads as there are available processors. The builder must
+	 * not be modified until the build is complete.
+	 */
+	public Future<MockMvc> buildAsync() {
+		return buildAsync(MockMvcExecutors.getDefaultExecutor());
+	}
 
+	/**
+	 * Build a {@link MockMvc} instance asynchronously using the given executor.
+	 * The builder must not be modified until the build is complete.
+	 */
+	public Future<MockMvc> buildAsync(Executor executor) {
+		return MockMvcBuilders.buildAsync(this, executor);
+	}
+
+	/**
+	 * Create and initialize the DispatcherServlet for the given contexts.
+	 * @param servletContext the ServletContext returned from {@link #initServletContext()}
+	 * @param wac the WebApplicationContext returned from {@link #initWebApplicationContext(ServletContext)}
+	 */
+	protected TestDispatcherServlet initDispatcherServlet(ServletContext servletContext, WebApplicationContext wac) {
 		ServletConfig config = new MockServletConfig(servletContext);
 		TestDispatcherServlet dispatcherServlet = new TestDispatcherServlet(wac);
 		try {
@@ -50,8 +117,29 @@ public abstract class AbstractMockMvcBuilder implements MockMvcBuilder {
 			// should never happen..
 			throw new MockMvcBuildException("Failed to init DispatcherServlet", ex);
 		}
+		return dispatcherServlet;
+	}
+
+	/**
+	 * Create the MockMvc instance for an initialized DispatcherServlet.
+	 * @param startupReport the startup report or {@code null}
+	 */
+	protected MockMvc createMockMvc(TestDispatcherServlet dispatcherServlet, StartupReport startupReport) {
+		return new MockMvc(dispatcherServlet, startupReport) {};
+	}
+
+	private void recordPhase(String phase, long startNanos) {
+		if (this.startupProfiler != null) {
+			this.startupProfiler.recordPhase(phase, startNanos);
+		}
+	}
 
-		return new MockMvc(dispatcherServlet) {};
+	/**
+	 * Return the profiler of the current build or {@code null} if startup
+	 * profiling is not enabled.
+	 */
+	StartupProfiler getStartupProfiler() {
+		return this.startupProfiler;
 	}
 
 	/**
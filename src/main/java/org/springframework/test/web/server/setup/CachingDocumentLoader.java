@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.xml.DefaultDocumentLoader;
+import org.springframework.beans.factory.xml.DocumentLoader;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
+import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+
+/**
+ * A {@link DocumentLoader} that keeps the parsed and validated DOM of Spring
+ * XML configuration files keyed by a hash of their content, so that loading
+ * the same files into another application context in the same JVM skips XML
+ * parsing and schema validation. Each caller gets a deep copy of the cached
+ * document since DOM implementations are not thread-safe even for reads.
+ *
+ * <p>Bean definitions are still created from the document for each context.
+ * This keeps them independent of each other, e.g. placeholder resolution in
+ * one context does not affect another, and lets each context apply its own
+ * active profiles.
+ *
+ * <p>Example use with an {@code XmlBeanDefinitionReader}:
+ *
+ * <pre>
+ * reader.setDocumentLoader(CachingDocumentLoader.getSharedInstance());
+ * </pre>
+ *
+ * @author Rossen Stoyanchev
+ * @see MockMvcBuilders#xmlConfigSetup(String...)
+ */
+public class CachingDocumentLoader implements DocumentLoader {
+
+	/**
+	 * The default maximum number of cached documents.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 128;
+
+	private static final CachingDocumentLoader sharedInstance = new CachingDocumentLoader(DEFAULT_MAX_SIZE);
+
+	private final DocumentLoader delegate;
+
+	private final Map<Object, Document> documents;
+
+	/**
+	 * Create an instance that parses documents with a {@link DefaultDocumentLoader}
+	 * and caches up to the given number of documents.
+	 */
+	public CachingDocumentLoader(int maxSize) {
+		this(new DefaultDocumentLoader(), maxSize);
+	}
+
+	/**
+	 * Create an instance that parses documents with the given loader and
+	 * caches up to the given number of documents.
+	 */
+	public CachingDocumentLoader(DocumentLoader delegate, final int maxSize) {
+		Assert.notNull(delegate, "'delegate' must not be null");
+		Assert.isTrue(maxSize > 0, "The maximum size must be greater than 0");
+		this.delegate = delegate;
+		this.documents = new LinkedHashMap<Object, Document>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Document> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Return the instance shared within the JVM with a maximum size of
+	 * {@link #DEFAULT_MAX_SIZE}.
+	 */
+	public static CachingDocumentLoader getSharedInstance() {
+		return sharedInstance;
+	}
+
+	public Document loadDocument(InputSource inputSource, EntityResolver entityResolver, ErrorHandler errorHandler,
+			int validationMode, boolean namespaceAware) throws Exception {
+
+		if (inputSource.getByteStream() == null) {
+			return this.delegate.loadDocument(inputSource, entityResolver, errorHandler, validationMode, namespaceAware);
+		}
+
+		byte[] content = FileCopyUtils.copyToByteArray(inputSource.getByteStream());
+		Object key = Arrays.asList(DigestUtils.md5DigestAsHex(content), content.length,
+				inputSource.getEncoding(), validationMode, namespaceAware);
+
+		Document document;
+		synchronized (this.documents) {
+			document = this.documents.get(key);
+		}
+		if (document == null) {
+			InputSource copy = new InputSource(new ByteArrayInputStream(content));
+			copy.setEncoding(inputSource.getEncoding());
+			copy.setSystemId(inputSource.getSystemId());
+			copy.setPublicId(inputSource.getPublicId());
+			document = this.delegate.loadDocument(copy, entityResolver, errorHandler, validationMode, namespaceAware);
+			synchronized (this.documents) {
+				this.documents.put(key, document);
+			}
+		}
+		synchronized (document) {
+			return (Document) document.cloneNode(true);
+		}
+	}
+
+	/**
+	 * Return the number of cached documents.
+	 */
+	public int size() {
+		synchronized (this.documents) {
+			return this.documents.size();
+		}
+	}
+
+	/**
+	 * Remove all cached documents.
+	 */
+	public void clear() {
+		synchronized (this.documents) {
+			this.documents.clear();
+		}
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.test.web.support.ByteBufferInputStream;
+import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * A {@link ResourceLoader} for the web application root of a MockServletContext
+ * that serves the content of resources in the file system from memory, e.g.
+ * static resources, JSP or Tiles definitions read repeatedly by tests.
+ *
+ * <p>Content is kept in a cache shared by all instances within the JVM and
+ * keyed by absolute file path. Files of {@link #MAPPED_FILE_THRESHOLD} bytes or
+ * more are memory-mapped rather than copied to the heap. The last modification
+ * time and length of a file are checked on every access and a changed file
+ * is read again. A file rewritten with the same length within the resolution
+ * of the file system's modification time, often one second, is not detected,
+ * so this class is meant for files that do not change while tests run. Once
+ * {@link #MAX_HEAP_BYTES} are cached on the heap, further small files are read
+ * from the file system on every access.
+ *
+ * <p>A memory-mapped file stays mapped until its buffer is garbage collected,
+ * which is after it has been replaced in the cache or {@link #clearCache()}
+ * has been called, and after all streams returned for it are unreachable.
+ * There is no way to unmap a buffer explicitly. On Windows a mapped file
+ * cannot be deleted or overwritten in the meantime.
+ *
+ * <p>Resources that are not in the file system, e.g. in jar files, are served
+ * by the underlying ResourceLoader as usual.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class CachingResourceLoader implements ResourceLoader {
+
+	/**
+	 * The size in bytes from which files are memory-mapped.
+	 */
+	public static final int MAPPED_FILE_THRESHOLD = 1024 * 1024;
+
+	/**
+	 * The maximum number of bytes of file content cached on the heap.
+	 */
+	public static final long MAX_HEAP_BYTES = 32 * 1024 * 1024;
+
+	private static final ConcurrentMap<String, CachedContent> contentCache =
+			new ConcurrentHashMap<String, CachedContent>();
+
+	private static final AtomicLong heapBytes = new AtomicLong();
+
+	private final ResourceLoader delegate;
+
+	/**
+	 * Create an instance that loads resources through the given ResourceLoader.
+	 */
+	public CachingResourceLoader(ResourceLoader delegate) {
+		Assert.notNull(delegate, "'delegate' must not be null");
+		this.delegate = delegate;
+	}
+
+	public Resource getResource(String location) {
+		return new CachingResource(this.delegate.getResource(location));
+	}
+
+	public ClassLoader getClassLoader() {
+		return this.delegate.getClassLoader();
+	}
+
+	/**
+	 * Remove all cached content shared by instances of this class. Files that
+	 * were memory-mapped are released once their buffers are garbage collected.
+	 */
+	public static void clearCache() {
+		contentCache.clear();
+		heapBytes.set(0);
+	}
+
+	private static InputStream getInputStream(Resource resource) throws IOException {
+		File file;
+		try {
+			file = resource.getFile();
+		}
+		catch (IOException ex) {
+			return resource.getInputStream();
+		}
+		String path = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+		CachedContent content = contentCache.get(path);
+		if (content == null || content.lastModified != lastModified || content.buffer.capacity() != length) {
+			content = loadContent(file, lastModified, length);
+			if (content == null) {
+				return resource.getInputStream();
+			}
+			CachedContent previous = contentCache.put(path, content);
+			if (previous != null && !previous.mapped) {
+				heapBytes.addAndGet(-previous.buffer.capacity());
+			}
+		}
+		return new ByteBufferInputStream(content.buffer.duplicate());
+	}
+
+	private static CachedContent loadContent(File file, long lastModified, long length) throws IOException {
+		if (length >= MAPPED_FILE_THRESHOLD) {
+			return new CachedContent(ByteBufferInputStream.map(file), lastModified, true);
+		}
+		if (heapBytes.addAndGet(length) > MAX_HEAP_BYTES) {
+			heapBytes.addAndGet(-length);
+			return null;
+		}
+		byte[] bytes = FileCopyUtils.copyToByteArray(file);
+		return new CachedContent(ByteBuffer.wrap(bytes), lastModified, false);
+	}
+
+
+	private static class CachedContent {
+
+		private final ByteBuffer buffer;
+
+		private final long lastModified;
+
+		private final boolean mapped;
+
+		public CachedContent(ByteBuffer buffer, long lastModified, boolean mapped) {
+			this.buffer = buffer;
+			this.lastModified = lastModified;
+			this.mapped = mapped;
+		}
+	}
+
+	/**
+	 * Delegates to the resource of the underlying ResourceLoader except for
+	 * reading content.
+	 */
+	private static class CachingResource implements Resource {
+
+		private final Resource resource;
+
+		public CachingResource(Resource resource) {
+			this.resource = resource;
+		}
+
+		public InputStream getInputStream() throws IOException {
+			return CachingResourceLoader.getInputStream(this.resource);
+		}
+
+		public boolean exists() {
+			return this.resource.exists();
+		}
+
+		public boolean isReadable() {
+			return this.resource.isReadable();
+		}
+
+		public boolean isOpen() {
+			return this.resource.isOpen();
+		}
+
+		public URL getURL() throws IOException {
+			return this.resource.getURL();
+		}
+
+		public URI getURI() throws IOException {
+			return this.resource.getURI();
+		}
+
+		public File getFile() throws IOException {
+			return this.resource.getFile();
+		}
+
+		public long contentLength() throws IOException {
+			return this.resource.contentLength();
+		}
+
+		public long lastModified() throws IOException {
+			return this.resource.lastModified();
+		}
+
+		public Resource createRelative(String relativePath) throws IOException {
+			return new CachingResource(this.resource.createRelative(relativePath));
+		}
+
+		public String getFilename() {
+			return this.resource.getFilename();
+		}
+
+		public String getDescription() {
+			return this.resource.getDescription();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj == this || (obj instanceof CachingResource && this.resource.equals(((CachingResource) obj).resource)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.resource.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return this.resource.toString();
+		}
+	}
+
+}
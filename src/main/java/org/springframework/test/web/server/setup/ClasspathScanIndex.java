@@ -0,0 +1,246 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * An on-disk index of the class file resources matching classpath scanning
+ * patterns such as {@code classpath*:org/example/**}{@code /*.class}, which
+ * lets JVMs started repeatedly with the same class path, e.g. forked test
+ * JVMs, skip traversing class path directories and jar files.
+ *
+ * <p>Each index file records the matching resources along with the last
+ * modification time of every directory under the scanned roots, of every
+ * matching class file, and of every jar file that was searched. The index is
+ * used only if none of these has changed, so added, removed, or recompiled
+ * classes cause a new scan. Index files are named after a hash of the pattern
+ * and the class path of the JVM.
+ *
+ * @author Rossen Stoyanchev
+ */
+class ClasspathScanIndex {
+
+	private static final Log logger = LogFactory.getLog(ClasspathScanIndex.class);
+
+	private static final String ENCODING = "UTF-8";
+
+	private final File directory;
+
+	public ClasspathScanIndex(File directory) {
+		Assert.notNull(directory, "'directory' must not be null");
+		this.directory = directory;
+	}
+
+	/**
+	 * Whether the given location pattern is a class path scan the index applies to.
+	 */
+	public boolean supports(String locationPattern) {
+		return locationPattern.startsWith(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX)
+				&& locationPattern.endsWith(".class");
+	}
+
+	/**
+	 * Return the resources matching the given pattern from the index if it is
+	 * up to date, or otherwise resolve them with the given resolver and update
+	 * the index.
+	 */
+	public Resource[] getResources(String locationPattern, ResourcePatternResolver resolver) throws IOException {
+		File indexFile = getIndexFile(locationPattern);
+		Resource[] resources = readIndex(indexFile, locationPattern);
+		if (resources != null) {
+			return resources;
+		}
+		resources = resolver.getResources(locationPattern);
+		try {
+			writeIndex(indexFile, locationPattern, resources, resolver);
+		}
+		catch (IOException ex) {
+			logger.debug("Failed to write class path scan index " + indexFile, ex);
+		}
+		return resources;
+	}
+
+	private File getIndexFile(String locationPattern) throws IOException {
+		String key = locationPattern + "\n" + System.getProperty("java.class.path");
+		return new File(this.directory, DigestUtils.md5DigestAsHex(key.getBytes(ENCODING)) + ".idx");
+	}
+
+	private Resource[] readIndex(File indexFile, String locationPattern) {
+		if (!indexFile.isFile()) {
+			return null;
+		}
+		List<Resource> resources = new ArrayList<Resource>();
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), ENCODING));
+			if (!locationPattern.equals(reader.readLine())) {
+				return null;
+			}
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int index = line.indexOf(' ');
+				if (line.startsWith("R ")) {
+					resources.add(new UrlResource(line.substring(index + 1)));
+				}
+				else if (line.startsWith("T ")) {
+					int pathIndex = line.indexOf(' ', index + 1);
+					long lastModified = Long.parseLong(line.substring(index + 1, pathIndex));
+					if (new File(line.substring(pathIndex + 1)).lastModified() != lastModified) {
+						if (logger.isDebugEnabled()) {
+							logger.debug("Class path scan index " + indexFile + " is out of date");
+						}
+						return null;
+					}
+				}
+			}
+		}
+		catch (Exception ex) {
+			logger.debug("Failed to read class path scan index " + indexFile, ex);
+			return null;
+		}
+		finally {
+			closeQuietly(reader);
+		}
+		return resources.toArray(new Resource[resources.size()]);
+	}
+
+	private void writeIndex(File indexFile, String locationPattern, Resource[] resources,
+			ResourcePatternResolver resolver) throws IOException {
+
+		Map<String, Long> timestamps = new LinkedHashMap<String, Long>();
+		for (Resource root : resolver.getResources(getRootDirPattern(locationPattern))) {
+			addTimestamps(root.getURL(), timestamps);
+		}
+		for (Resource resource : resources) {
+			addTimestamps(resource.getURL(), timestamps);
+		}
+
+		if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+			throw new IOException("Could not create directory " + this.directory);
+		}
+		File tempFile = File.createTempFile("scan", ".tmp", this.directory);
+		Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), ENCODING);
+		try {
+			writer.write(locationPattern + "\n");
+			for (Map.Entry<String, Long> entry : timestamps.entrySet()) {
+				writer.write("T " + entry.getValue() + " " + entry.getKey() + "\n");
+			}
+			for (Resource resource : resources) {
+				writer.write("R " + resource.getURL() + "\n");
+			}
+		}
+		finally {
+			writer.close();
+		}
+		if (!tempFile.renameTo(indexFile)) {
+			indexFile.delete();
+			if (!tempFile.renameTo(indexFile)) {
+				tempFile.delete();
+				throw new IOException("Could not rename " + tempFile + " to " + indexFile);
+			}
+		}
+	}
+
+	/**
+	 * Return a pattern for the root directories of the given pattern, i.e.
+	 * the part up to the last "/" before the first wildcard.
+	 */
+	private String getRootDirPattern(String locationPattern) {
+		int wildcardIndex = locationPattern.length();
+		for (char wildcard : new char[] {'*', '?', '{'}) {
+			int index = locationPattern.indexOf(wildcard, ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX.length());
+			if (index != -1 && index < wildcardIndex) {
+				wildcardIndex = index;
+			}
+		}
+		int slashIndex = locationPattern.lastIndexOf('/', wildcardIndex);
+		return (slashIndex != -1) ? locationPattern.substring(0, slashIndex + 1) :
+				ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX;
+	}
+
+	/**
+	 * Record the timestamp of a class file, of a jar file, or of a root
+	 * directory and all directories below it.
+	 */
+	private void addTimestamps(URL url, Map<String, Long> timestamps) throws IOException {
+		if (ResourceUtils.isJarURL(url)) {
+			URL jarFileUrl = ResourceUtils.extractJarFileURL(url);
+			if (ResourceUtils.URL_PROTOCOL_FILE.equals(jarFileUrl.getProtocol())) {
+				File jarFile = ResourceUtils.getFile(jarFileUrl);
+				timestamps.put(jarFile.getAbsolutePath(), jarFile.lastModified());
+			}
+		}
+		else if (ResourceUtils.URL_PROTOCOL_FILE.equals(url.getProtocol())) {
+			File file = ResourceUtils.getFile(url);
+			if (file.isDirectory()) {
+				addDirectoryTimestamps(file, timestamps);
+			}
+			else {
+				timestamps.put(file.getAbsolutePath(), file.lastModified());
+			}
+		}
+		else {
+			throw new IOException("Cannot index resource " + url);
+		}
+	}
+
+	private void addDirectoryTimestamps(File directory, Map<String, Long> timestamps) {
+		timestamps.put(directory.getAbsolutePath(), directory.lastModified());
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.isDirectory()) {
+					addDirectoryTimestamps(file, timestamps);
+				}
+			}
+		}
+	}
+
+	private void closeQuietly(BufferedReader reader) {
+		if (reader != null) {
+			try {
+				reader.close();
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+	}
+
+}
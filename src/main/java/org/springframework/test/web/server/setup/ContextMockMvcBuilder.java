@@ -16,16 +16,27 @@
 
 package org.springframework.test.web.server.setup;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletContext;
 
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.FileSystemResourceLoader;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.mock.web.MockRequestDispatcher;
 import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.StartupReport;
+import org.springframework.test.web.server.TestDispatcherServlet;
+import org.springframework.util.Assert;
 import org.springframework.web.context.ConfigurableWebApplicationContext;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -45,17 +56,45 @@ public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
 
 	private final ConfigurableWebApplicationContext applicationContext;
 
+	private final List<Object> configSources;
+
 	private String webResourceBasePath = "";
 
 	private ResourceLoader webResourceLoader = new FileSystemResourceLoader();
 
+	private boolean isClasspathRelative = false;
+
+	private boolean cacheWebResources = false;
+
+	private List<String> activeProfiles = Collections.emptyList();
+
+	private final List<ApplicationContextInitializer<?>> initializers = new ArrayList<ApplicationContextInitializer<?>>();
+
+	private ApplicationContext parentContext;
+
+	private MockMvcCache cache;
+
+	private LazyInitBeanFactoryPostProcessor lazyInitPostProcessor;
+
+	private ForkableBeans forkableBeans;
+
 	/**
      * Protected constructor. Not intended for direct instantiation.
      * @see MockMvcBuilders#annotationConfigSetup(Class...)
      * @see MockMvcBuilders#xmlConfigSetup(String...)
 	 */
 	public ContextMockMvcBuilder(ConfigurableWebApplicationContext applicationContext) {
+		this(applicationContext, null);
+	}
+
+	/**
+	 * Constructor that also accepts the configuration classes or locations
+	 * the application context was set up with, used to cache MockMvc instances.
+	 * @see #cache()
+	 */
+	ContextMockMvcBuilder(ConfigurableWebApplicationContext applicationContext, Object[] configSources) {
 		this.applicationContext = applicationContext;
+		this.configSources = (configSources != null) ? Arrays.asList(configSources) : null;
 	}
 
 	/**
@@ -71,6 +110,21 @@ public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
 	public ContextMockMvcBuilder configureWebAppRootDir(String warRootDir, boolean isClasspathRelative) {
 		this.webResourceBasePath = warRootDir;
 		this.webResourceLoader = isClasspathRelative ? new DefaultResourceLoader() : new FileSystemResourceLoader();
+		this.isClasspathRelative = isClasspathRelative;
+		return this;
+	}
+
+	/**
+	 * Serve the content of files under the web application root directory
+	 * from memory through a {@link CachingResourceLoader}, e.g. for tests that
+	 * read the same static resources, JSPs, or Tiles definitions repeatedly.
+	 * <p>A cached file is read again only when its last modification time or
+	 * length changes, so this is meant for files that do not change while
+	 * tests are running. See {@link CachingResourceLoader} for how long
+	 * memory-mapped files remain open.
+	 */
+	public ContextMockMvcBuilder cacheWebResources() {
+		this.cacheWebResources = true;
 		return this;
 	}
 
@@ -79,6 +133,7 @@ public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
 	 */
 	public ContextMockMvcBuilder activateProfiles(String...profiles) {
 		this.applicationContext.getEnvironment().setActiveProfiles(profiles);
+		this.activeProfiles = Arrays.asList(profiles);
 		return this;
 	}
 
@@ -91,13 +146,158 @@ public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
 
 		for (ApplicationContextInitializer<T> initializer : initializers) {
 			initializer.initialize((T) this.applicationContext);
+			this.initializers.add(initializer);
 		}
 		return this;
 	}
 
+	/**
+	 * Keep an index of class path scanning results, e.g. from @ComponentScan,
+	 * in a "spring-test-mvc-scan-index" directory under "java.io.tmpdir".
+	 * @see #indexClasspathScan(File)
+	 */
+	public ContextMockMvcBuilder indexClasspathScan() {
+		return indexClasspathScan(new File(System.getProperty("java.io.tmpdir"), "spring-test-mvc-scan-index"));
+	}
+
+	/**
+	 * Keep an index of class path scanning results, e.g. from @ComponentScan,
+	 * in the given directory so that other JVMs with the same class path, e.g.
+	 * forked test JVMs, can skip traversing class path directories and jars.
+	 * The index is invalidated when class files, jar files, or directories
+	 * under the scanned packages change.
+	 * <p>Only available for builders obtained through
+	 * {@link MockMvcBuilders#annotationConfigSetup(Class...)}.
+	 */
+	public ContextMockMvcBuilder indexClasspathScan(File indexDirectory) {
+		Assert.state(this.applicationContext instanceof ScanIndexingAnnotationConfigWebApplicationContext,
+				"Class path scan indexing requires a builder obtained through MockMvcBuilders.annotationConfigSetup");
+		((ScanIndexingAnnotationConfigWebApplicationContext) this.applicationContext).setScanIndex(
+				new ClasspathScanIndex(indexDirectory));
+		return this;
+	}
+
+	/**
+	 * Make singleton beans lazy so that only the beans needed by the requests
+	 * a test performs are created. The Spring MVC infrastructure detected by
+	 * the DispatcherServlet (handler mappings, adapters, exception and view
+	 * resolvers, etc.), infrastructure-role beans, post-processors, and
+	 * {@link org.springframework.context.Lifecycle} beans remain eager.
+	 * Controllers are created on the first request they handle.
+	 * <p>A FactoryBean that produces a DispatcherServlet strategy is not
+	 * detected as such and will not be found by the DispatcherServlet.
+	 * @see #getLazyInitReport()
+	 */
+	public ContextMockMvcBuilder lazyInit() {
+		this.lazyInitPostProcessor = new LazyInitBeanFactoryPostProcessor();
+		this.applicationContext.addBeanFactoryPostProcessor(this.lazyInitPostProcessor);
+		return this;
+	}
+
+	/**
+	 * Return a report of the beans kept eager and of the lazy beans created so
+	 * far, or {@code null} if {@link #lazyInit()} was not called or this
+	 * builder has not refreshed its application context, e.g. because the
+	 * MockMvc was obtained from a {@link MockMvcCache}.
+	 */
+	public LazyInitReport getLazyInitReport() {
+		return (this.lazyInitPostProcessor != null) ? this.lazyInitPostProcessor.getReport() : null;
+	}
+
+	/**
+	 * Make the given singleton beans forkable so that the MockMvc built with
+	 * {@link #buildForkable()} can create forks with their own instances of
+	 * these beans while sharing the rest of the refreshed application context.
+	 * @see ForkableMockMvc
+	 */
+	public ContextMockMvcBuilder forkable(String... beanNames) {
+		Assert.state(this.forkableBeans == null, "Forkable beans have already been set");
+		this.forkableBeans = new ForkableBeans(beanNames);
+		this.applicationContext.addBeanFactoryPostProcessor(this.forkableBeans);
+		return this;
+	}
+
+	/**
+	 * Build a {@link ForkableMockMvc} after beans have been made forkable
+	 * through {@link #forkable(String...)}.
+	 */
+	public ForkableMockMvc buildForkable() {
+		Assert.state(this.forkableBeans != null, "No forkable beans");
+		return (ForkableMockMvc) build();
+	}
+
+	@Override
+	public ContextMockMvcBuilder profileStartup() {
+		super.profileStartup();
+		return this;
+	}
+
+	/**
+	 * Cache the built MockMvc in the {@link MockMvcCache#getSharedInstance()
+	 * shared cache} so that other builders with the same configuration, e.g.
+	 * in other test classes, return the same MockMvc instead of refreshing
+	 * a new application context.
+	 * <p>Initializers are compared with {@code equals}, i.e. by identity
+	 * unless they implement it. Builders applying different initializer
+	 * instances therefore get a MockMvc of their own unless the initializer
+	 * type defines when two instances are equivalent.
+	 */
+	public ContextMockMvcBuilder cache() {
+		return cache(MockMvcCache.getSharedInstance());
+	}
+
+	/**
+	 * Cache the built MockMvc in the given cache.
+	 * @see #cache()
+	 */
+	public ContextMockMvcBuilder cache(MockMvcCache cache) {
+		Assert.notNull(cache, "'cache' must not be null");
+		Assert.state(this.configSources != null,
+				"Caching requires a builder obtained through MockMvcBuilders.annotationConfigSetup or xmlConfigSetup");
+		this.cache = cache;
+		return this;
+	}
+
+	@Override
+	public MockMvc build() {
+		if (this.cache == null) {
+			return super.build();
+		}
+		return this.cache.getMockMvc(getCacheKey(), new MockMvcCache.MockMvcFactory() {
+
+			public MockMvc createMockMvc() {
+				return ContextMockMvcBuilder.super.build();
+			}
+
+			public ConfigurableApplicationContext getApplicationContext() {
+				return applicationContext;
+			}
+		});
+	}
+
+	/**
+	 * Return a key for the effective configuration of this builder.
+	 */
+	private Object getCacheKey() {
+		return Arrays.<Object>asList(this.applicationContext.getClass(), this.configSources, this.activeProfiles,
+				this.webResourceBasePath, this.isClasspathRelative, this.cacheWebResources, this.initializers, this.parentContext,
+				(this.lazyInitPostProcessor != null), isProfileStartup(),
+				(this.forkableBeans != null) ? this.forkableBeans.getBeanNames() : null);
+	}
+
+	@Override
+	protected MockMvc createMockMvc(TestDispatcherServlet dispatcherServlet, StartupReport startupReport) {
+		if (this.forkableBeans != null) {
+			return new ForkableMockMvc(dispatcherServlet, startupReport, this.forkableBeans);
+		}
+		return super.createMockMvc(dispatcherServlet, startupReport);
+	}
+
 	@Override
 	protected ServletContext initServletContext() {
-		return new MockServletContext(this.webResourceBasePath, this.webResourceLoader) {
+		ResourceLoader resourceLoader = this.cacheWebResources ?
+				new CachingResourceLoader(this.webResourceLoader) : this.webResourceLoader;
+		return new MockServletContext(this.webResourceBasePath, resourceLoader) {
 			// Required for DefaultServletHttpRequestHandler...
 			public RequestDispatcher getNamedDispatcher(String path) {
 				return (path.equals("default")) ? new MockRequestDispatcher(path) : super.getNamedDispatcher(path);
@@ -108,7 +308,14 @@ public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
 	@Override
 	protected WebApplicationContext initWebApplicationContext(ServletContext servletContext) {
 		this.applicationContext.setServletContext(servletContext);
+		StartupProfiler startupProfiler = getStartupProfiler();
+		if (startupProfiler != null) {
+			this.applicationContext.addBeanFactoryPostProcessor(startupProfiler.getBeanTimingPostProcessor());
+		}
 		this.applicationContext.refresh();
+		if (this.lazyInitPostProcessor != null) {
+			this.lazyInitPostProcessor.getReport().recordRefreshed();
+		}
 		return this.applicationContext;
 	}
 
@@ -122,6 +329,7 @@ public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
 	 */
 	public ContextMockMvcBuilder setParentContext(ApplicationContext parentContext) {
 		this.applicationContext.setParent(parentContext);
+		this.parentContext = parentContext;
 		return this;
 	}
 }
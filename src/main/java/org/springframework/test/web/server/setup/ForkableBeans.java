@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Wraps selected singleton beans of an application context in proxies that
+ * delegate to the instance of the {@link MockMvcFork} performing the current
+ * request, or to the original bean outside of a fork.
+ *
+ * <p>Each fork has its own bean factory with copies of the definitions of the
+ * forkable beans and the application context bean factory as its parent, so
+ * fork instances are created from the same definitions, lazily on first use,
+ * and get all other dependencies from the application context.
+ *
+ * <p>Fork instances of beans declared with @Bean methods are created by
+ * invoking the method on a plain, non-enhanced instance of the configuration
+ * class. Calls from that method to other @Bean methods therefore return new
+ * objects rather than beans of the application context.
+ *
+ * <p>Forkable beans are proxied by class if CGLIB is present, and otherwise
+ * through their interfaces. FactoryBeans are not supported.
+ *
+ * @author Rossen Stoyanchev
+ */
+class ForkableBeans implements BeanFactoryPostProcessor {
+
+	private static final boolean cglibPresent =
+			ClassUtils.isPresent("net.sf.cglib.proxy.Enhancer", ForkableBeans.class.getClassLoader());
+
+	private final Set<String> beanNames;
+
+	private final ThreadLocal<MockMvcFork> currentFork = new ThreadLocal<MockMvcFork>();
+
+	private ConfigurableListableBeanFactory beanFactory;
+
+	public ForkableBeans(String... beanNames) {
+		Assert.notEmpty(beanNames, "At least one bean name is required");
+		this.beanNames = Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(beanNames)));
+	}
+
+	public Set<String> getBeanNames() {
+		return this.beanNames;
+	}
+
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		for (String beanName : this.beanNames) {
+			Assert.isTrue(beanFactory.containsBeanDefinition(beanName), "No bean named '" + beanName + "'");
+			Assert.isTrue(beanFactory.getBeanDefinition(beanName).isSingleton(),
+					"Bean '" + beanName + "' is not a singleton and cannot be forked");
+		}
+		this.beanFactory = beanFactory;
+		beanFactory.addBeanPostProcessor(new ForkableBeanPostProcessor());
+	}
+
+	/**
+	 * Create the bean factory for a new fork.
+	 */
+	public DefaultListableBeanFactory createForkBeanFactory() {
+		Assert.state(this.beanFactory != null, "The application context has not been refreshed");
+		DefaultListableBeanFactory forkBeanFactory = new DefaultListableBeanFactory(this.beanFactory);
+		forkBeanFactory.copyConfigurationFrom(this.beanFactory);
+		for (String beanName : this.beanNames) {
+			AbstractBeanDefinition beanDefinition =
+					((AbstractBeanDefinition) this.beanFactory.getMergedBeanDefinition(beanName)).cloneBeanDefinition();
+			beanDefinition.setLazyInit(true);
+			forkBeanFactory.registerBeanDefinition(beanName, beanDefinition);
+			registerPlainFactoryBean(forkBeanFactory, beanDefinition.getFactoryBeanName());
+		}
+		return forkBeanFactory;
+	}
+
+	/**
+	 * Invoking an @Bean method on the CGLIB-enhanced configuration class would
+	 * return the singleton of the application context. Fork instances are
+	 * therefore created through a plain instance of the configuration class.
+	 */
+	private void registerPlainFactoryBean(DefaultListableBeanFactory forkBeanFactory, String factoryBeanName) {
+		if (factoryBeanName == null || forkBeanFactory.containsBeanDefinition(factoryBeanName)) {
+			return;
+		}
+		Class<?> factoryClass = this.beanFactory.getType(factoryBeanName);
+		if (factoryClass != null && ClassUtils.getUserClass(factoryClass) != factoryClass) {
+			RootBeanDefinition beanDefinition = new RootBeanDefinition(ClassUtils.getUserClass(factoryClass));
+			beanDefinition.setLazyInit(true);
+			forkBeanFactory.registerBeanDefinition(factoryBeanName, beanDefinition);
+		}
+	}
+
+	/**
+	 * Bind the given fork to the current thread.
+	 * @return the previously bound fork, possibly {@code null}
+	 */
+	public MockMvcFork bindFork(MockMvcFork fork) {
+		MockMvcFork previous = this.currentFork.get();
+		this.currentFork.set(fork);
+		return previous;
+	}
+
+	public void restoreFork(MockMvcFork previous) {
+		if (previous != null) {
+			this.currentFork.set(previous);
+		}
+		else {
+			this.currentFork.remove();
+		}
+	}
+
+
+	/**
+	 * Wraps forkable beans of the application context, but not their copies
+	 * in fork bean factories, which share the post-processor.
+	 */
+	private class ForkableBeanPostProcessor implements BeanPostProcessor {
+
+		public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+			return bean;
+		}
+
+		public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+			if (!beanNames.contains(beanName) || bean instanceof FactoryBean
+					|| !beanFactory.isCurrentlyInCreation(beanName)) {
+				return bean;
+			}
+			ProxyFactory proxyFactory = new ProxyFactory();
+			proxyFactory.setTargetSource(new ForkTargetSource(beanName, bean));
+			if (cglibPresent) {
+				proxyFactory.setProxyTargetClass(true);
+			}
+			else {
+				proxyFactory.setInterfaces(ClassUtils.getAllInterfaces(bean));
+			}
+			return proxyFactory.getProxy(beanFactory.getBeanClassLoader());
+		}
+	}
+
+	private class ForkTargetSource implements TargetSource {
+
+		private final String beanName;
+
+		private final Object bean;
+
+		public ForkTargetSource(String beanName, Object bean) {
+			this.beanName = beanName;
+			this.bean = bean;
+		}
+
+		public Class<?> getTargetClass() {
+			return this.bean.getClass();
+		}
+
+		public boolean isStatic() {
+			return false;
+		}
+
+		public Object getTarget() {
+			MockMvcFork fork = currentFork.get();
+			return (fork != null) ? fork.getBean(this.beanName) : this.bean;
+		}
+
+		public void releaseTarget(Object target) {
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.StartupReport;
+import org.springframework.test.web.server.TestDispatcherServlet;
+
+/**
+ * A {@link MockMvc} built from an application context with forkable beans.
+ * Requests performed directly through this instance use the original beans.
+ * Each {@link #fork()} shares the refreshed application context, and hence
+ * all infrastructure and non-forkable beans, but has its own instances of the
+ * forkable beans. This isolates tests that modify the state of those beans
+ * without refreshing an application context per test. Example:
+ *
+ * <pre>
+ * static ForkableMockMvc mockMvc =
+ *     annotationConfigSetup(WebConfig.class).forkable("personService").buildForkable();
+ *
+ * MockMvcFork fork = mockMvc.fork().setBean("personService", new StubPersonService());
+ * fork.perform(get("/person/1")).andExpect(status().isOk());
+ * </pre>
+ *
+ * @author Rossen Stoyanchev
+ * @see ContextMockMvcBuilder#forkable(String...)
+ */
+public class ForkableMockMvc extends MockMvc {
+
+	private final TestDispatcherServlet dispatcherServlet;
+
+	private final ForkableBeans forkableBeans;
+
+	ForkableMockMvc(TestDispatcherServlet dispatcherServlet, StartupReport startupReport, ForkableBeans forkableBeans) {
+		super(dispatcherServlet, startupReport);
+		this.dispatcherServlet = dispatcherServlet;
+		this.forkableBeans = forkableBeans;
+	}
+
+	/**
+	 * Create a fork with its own instances of the forkable beans.
+	 */
+	public MockMvcFork fork() {
+		return new MockMvcFork(this.dispatcherServlet, this.forkableBeans);
+	}
+
+}
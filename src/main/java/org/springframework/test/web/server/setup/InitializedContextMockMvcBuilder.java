@@ -16,8 +16,14 @@
 
 package org.springframework.test.web.server.setup;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import javax.servlet.ServletContext;
 
+import org.springframework.test.web.server.TestDispatcherServlet;
 import org.springframework.util.Assert;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -25,10 +31,19 @@ import org.springframework.web.context.WebApplicationContext;
  * A MockMvcBuilder that discovers controllers and Spring MVC infrastructure
  * components in a WebApplicationContext.
  *
+ * <p>The initialized DispatcherServlet is shared by all MockMvc instances
+ * built for the same WebApplicationContext instance, so repeated builds
+ * against a context shared across tests don't initialize the strategies of
+ * the DispatcherServlet again. The servlet is released once no longer used
+ * by any MockMvc instance or once the context is garbage collected.
+ *
  * @author Rossen Stoyanchev
  */
 public class InitializedContextMockMvcBuilder extends AbstractMockMvcBuilder {
 
+	private static final Map<WebApplicationContext, Reference<TestDispatcherServlet>> dispatcherServlets =
+			new WeakHashMap<WebApplicationContext, Reference<TestDispatcherServlet>>();
+
 	private final WebApplicationContext applicationContext;
 
 	/**
@@ -51,4 +66,17 @@ public class InitializedContextMockMvcBuilder extends AbstractMockMvcBuilder {
 		return this.applicationContext;
 	}
 
+	@Override
+	protected TestDispatcherServlet initDispatcherServlet(ServletContext servletContext, WebApplicationContext wac) {
+		synchronized (dispatcherServlets) {
+			Reference<TestDispatcherServlet> reference = dispatcherServlets.get(wac);
+			TestDispatcherServlet dispatcherServlet = (reference != null) ? reference.get() : null;
+			if (dispatcherServlet == null) {
+				dispatcherServlet = super.initDispatcherServlet(servletContext, wac);
+				dispatcherServlets.put(wac, new WeakReference<TestDispatcherServlet>(dispatcherServlet));
+			}
+			return dispatcherServlet;
+		}
+	}
+
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.Lifecycle;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.FlashMapManager;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.RequestToViewNameTranslator;
+import org.springframework.web.servlet.ThemeResolver;
+import org.springframework.web.servlet.ViewResolver;
+
+/**
+ * A BeanFactoryPostProcessor that marks singleton bean definitions lazy
+ * except for the Spring MVC infrastructure detected by the DispatcherServlet,
+ * infrastructure-role beans, post-processors, and {@link Lifecycle} beans.
+ *
+ * <p>Bean types are determined from bean definitions only, i.e. the bean class
+ * or the return type of the factory method, so that no bean is created before
+ * other BeanFactoryPostProcessors have run. Beans whose type cannot be
+ * determined that way are kept eager.
+ *
+ * @author Rossen Stoyanchev
+ */
+class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+	private static final Class<?>[] EAGER_TYPES = new Class<?>[] {
+		HandlerMapping.class, HandlerAdapter.class, HandlerExceptionResolver.class, ViewResolver.class,
+		LocaleResolver.class, ThemeResolver.class, RequestToViewNameTranslator.class, FlashMapManager.class,
+		MultipartResolver.class, BeanPostProcessor.class, BeanFactoryPostProcessor.class, Lifecycle.class
+	};
+
+	private LazyInitReport report;
+
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		Set<String> eagerBeanNames = new LinkedHashSet<String>();
+		Set<String> lazyBeanNames = new LinkedHashSet<String>();
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+			if (beanDefinition.isAbstract() || !beanDefinition.isSingleton()) {
+				continue;
+			}
+			if (beanDefinition.isLazyInit()) {
+				lazyBeanNames.add(beanName);
+			}
+			else if (isEager(beanFactory, beanDefinition)) {
+				eagerBeanNames.add(beanName);
+			}
+			else {
+				beanDefinition.setLazyInit(true);
+				lazyBeanNames.add(beanName);
+			}
+		}
+		this.report = new LazyInitReport(beanFactory, eagerBeanNames, lazyBeanNames);
+	}
+
+	/**
+	 * Return the report of eager and lazy beans, or {@code null} if the
+	 * application context has not been refreshed yet.
+	 */
+	public LazyInitReport getReport() {
+		return this.report;
+	}
+
+	private boolean isEager(ConfigurableListableBeanFactory beanFactory, BeanDefinition beanDefinition) {
+		if (beanDefinition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+			return true;
+		}
+		Class<?> beanType = predictBeanType(beanFactory, beanDefinition);
+		if (beanType == null) {
+			return true;
+		}
+		for (Class<?> eagerType : EAGER_TYPES) {
+			if (eagerType.isAssignableFrom(beanType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Class<?> predictBeanType(ConfigurableListableBeanFactory beanFactory, BeanDefinition beanDefinition) {
+		String factoryMethodName = beanDefinition.getFactoryMethodName();
+		if (factoryMethodName == null) {
+			return resolveClass(beanFactory, beanDefinition.getBeanClassName());
+		}
+		String factoryBeanName = beanDefinition.getFactoryBeanName();
+		String factoryClassName = (factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)) ?
+				beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName() : beanDefinition.getBeanClassName();
+		Class<?> factoryClass = resolveClass(beanFactory, factoryClassName);
+		if (factoryClass == null) {
+			return null;
+		}
+		Class<?> returnType = null;
+		for (Method method : ReflectionUtils.getAllDeclaredMethods(ClassUtils.getUserClass(factoryClass))) {
+			if (method.getName().equals(factoryMethodName)) {
+				if (returnType != null && !returnType.equals(method.getReturnType())) {
+					// Overloaded factory methods..
+					return null;
+				}
+				returnType = method.getReturnType();
+			}
+		}
+		return returnType;
+	}
+
+	private Class<?> resolveClass(ConfigurableListableBeanFactory beanFactory, String className) {
+		if (className == null) {
+			return null;
+		}
+		try {
+			return ClassUtils.forName(className, beanFactory.getBeanClassLoader());
+		}
+		catch (Throwable ex) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * Reports which beans of an application context built in lazy mode were kept
+ * eager and which of the lazy beans have been materialized so far. The report
+ * is live, i.e. it reflects beans created by requests performed after the
+ * MockMvc instance was built.
+ *
+ * @author Rossen Stoyanchev
+ * @see ContextMockMvcBuilder#lazyInit()
+ */
+public class LazyInitReport {
+
+	private final ConfigurableListableBeanFactory beanFactory;
+
+	private final Set<String> eagerBeanNames;
+
+	private final Set<String> lazyBeanNames;
+
+	private Set<String> refreshMaterializedBeanNames = Collections.emptySet();
+
+	LazyInitReport(ConfigurableListableBeanFactory beanFactory, Set<String> eagerBeanNames, Set<String> lazyBeanNames) {
+		this.beanFactory = beanFactory;
+		this.eagerBeanNames = Collections.unmodifiableSet(new LinkedHashSet<String>(eagerBeanNames));
+		this.lazyBeanNames = Collections.unmodifiableSet(new LinkedHashSet<String>(lazyBeanNames));
+	}
+
+	/**
+	 * Return the names of singleton beans created during the refresh of the
+	 * application context, i.e. the Spring MVC infrastructure and other beans
+	 * that must not be lazy.
+	 */
+	public Set<String> getEagerBeanNames() {
+		return this.eagerBeanNames;
+	}
+
+	/**
+	 * Return the names of beans that are only created when first needed.
+	 */
+	public Set<String> getLazyBeanNames() {
+		return this.lazyBeanNames;
+	}
+
+	/**
+	 * Record the lazy beans created during the refresh of the application
+	 * context as dependencies of eager beans.
+	 */
+	void recordRefreshed() {
+		this.refreshMaterializedBeanNames = Collections.unmodifiableSet(getMaterializedBeanNames());
+	}
+
+	/**
+	 * Return the names of lazy beans that were nevertheless created during the
+	 * refresh of the application context because eager beans depend on them,
+	 * e.g. configuration classes declaring infrastructure beans.
+	 */
+	public Set<String> getRefreshMaterializedBeanNames() {
+		return this.refreshMaterializedBeanNames;
+	}
+
+	/**
+	 * Return the names of lazy singleton beans that have been created so far,
+	 * including those returned from {@link #getRefreshMaterializedBeanNames()}.
+	 */
+	public Set<String> getMaterializedBeanNames() {
+		Set<String> result = new LinkedHashSet<String>();
+		for (String beanName : this.lazyBeanNames) {
+			if (this.beanFactory.containsSingleton(beanName)) {
+				result.add(beanName);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		Set<String> materialized = getMaterializedBeanNames();
+		return "LazyInitReport [eager=" + this.eagerBeanNames.size() + ", lazy=" + this.lazyBeanNames.size() +
+				", materialized=" + materialized.size() + " " + materialized + "]";
+	}
+
+}
@@ -16,11 +16,22 @@
 
 package org.springframework.test.web.server.setup;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
 import javax.servlet.ServletContext;
 
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Controller;
 import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.support.MockMvcExecutors;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.context.WebApplicationContext;
@@ -43,13 +54,14 @@ public class MockMvcBuilders {
 	 */
 	public static ContextMockMvcBuilder annotationConfigSetup(Class<?>... configClasses) {
 		Assert.notEmpty(configClasses, "At least one @Configuration class is required");
-		AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+		AnnotationConfigWebApplicationContext context = new ScanIndexingAnnotationConfigWebApplicationContext();
 		context.register(configClasses);
-		return new ContextMockMvcBuilder(context);
+		return new ContextMockMvcBuilder(context, configClasses);
 	}
 
 	/**
 	 * Build a {@link MockMvc} from XML-based Spring configuration.
+	 * XML files are parsed and validated once per JVM, see {@link CachingDocumentLoader}.
 	 * @param configLocations XML configuration file locations:
 	 * 	<ul>
 	 * 		<li>{@code classpath:org/example/config/*-context.xml}
@@ -59,9 +71,19 @@ public class MockMvcBuilders {
 	 */
 	public static ContextMockMvcBuilder xmlConfigSetup(String... configLocations) {
 		Assert.notEmpty(configLocations, "At least one XML config location is required");
-		XmlWebApplicationContext context = new XmlWebApplicationContext();
+		XmlWebApplicationContext context = new XmlWebApplicationContext() {
+			@Override
+			protected DefaultListableBeanFactory createBeanFactory() {
+				return new ProfilingBeanFactory(getInternalParentBeanFactory());
+			}
+
+			@Override
+			protected void initBeanDefinitionReader(XmlBeanDefinitionReader beanDefinitionReader) {
+				beanDefinitionReader.setDocumentLoader(CachingDocumentLoader.getSharedInstance());
+			}
+		};
 		context.setConfigLocations(configLocations);
-		return new ContextMockMvcBuilder(context);
+		return new ContextMockMvcBuilder(context, configLocations);
 	}
 
 	/**
@@ -82,4 +104,47 @@ public class MockMvcBuilders {
 		return new StandaloneMockMvcBuilder(controllers);
 	}
 
+	/**
+	 * Build several {@link MockMvc} instances concurrently, e.g. to refresh the
+	 * application contexts of a test suite in parallel, using a default executor
+	 * with as many threads as there are available processors.
+	 * @param builders the builders to build with
+	 * @return Futures for the MockMvc instances, in the same order as the builders
+	 * @see #buildAll(List, Executor)
+	 */
+	public static List<Future<MockMvc>> buildAll(MockMvcBuilder... builders) {
+		return buildAll(Arrays.asList(builders), MockMvcExecutors.getDefaultExecutor());
+	}
+
+	/**
+	 * Build several {@link MockMvc} instances concurrently using the given
+	 * executor. A bounded executor limits how many builds run at a time.
+	 * @param builders the builders to build with
+	 * @param executor the executor to build with
+	 * @return Futures for the MockMvc instances, in the same order as the builders
+	 */
+	public static List<Future<MockMvc>> buildAll(List<? extends MockMvcBuilder> builders, Executor executor) {
+		Assert.notNull(builders, "'builders' must not be null");
+		List<Future<MockMvc>> futures = new ArrayList<Future<MockMvc>>(builders.size());
+		for (MockMvcBuilder builder : builders) {
+			futures.add(buildAsync(builder, executor));
+		}
+		return futures;
+	}
+
+	/**
+	 * Build a {@link MockMvc} instance asynchronously with the given builder
+	 * and executor. The Future fails with any exception raised by the build.
+	 */
+	static Future<MockMvc> buildAsync(final MockMvcBuilder builder, Executor executor) {
+		Assert.notNull(executor, "'executor' must not be null");
+		FutureTask<MockMvc> task = new FutureTask<MockMvc>(new Callable<MockMvc>() {
+			public MockMvc call() {
+				return builder.build();
+			}
+		});
+		executor.execute(task);
+		return task;
+	}
+
 }
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.util.Assert;
+
+/**
+ * A cache of {@link MockMvc} instances built with {@link ContextMockMvcBuilder}
+ * and keyed by the configuration of the builder, i.e. configuration classes or
+ * locations, active profiles, web application root directory, initializers,
+ * and parent context. This allows test classes with the same configuration to
+ * share a single refreshed WebApplicationContext.
+ *
+ * <p>The number of cached instances is bounded. When the maximum size is
+ * exceeded the least recently used instance is evicted and its
+ * WebApplicationContext is closed.
+ *
+ * <p>A shared instance is available through {@link #getSharedInstance()} and
+ * is used by {@link ContextMockMvcBuilder#cache()}. Example:
+ *
+ * <pre>
+ * MockMvc mockMvc = annotationConfigSetup(WebConfig.class).cache().build();
+ * </pre>
+ *
+ * @author Rossen Stoyanchev
+ */
+public class MockMvcCache {
+
+	/**
+	 * The default maximum number of cached MockMvc instances.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 32;
+
+	private static final Log logger = LogFactory.getLog(MockMvcCache.class);
+
+	private static final MockMvcCache sharedInstance = new MockMvcCache(DEFAULT_MAX_SIZE);
+
+	private final Map<Object, CacheEntry> entries = new LinkedHashMap<Object, CacheEntry>(16, 0.75f, true);
+
+	private final int maxSize;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	/**
+	 * Create a cache with the given maximum number of MockMvc instances.
+	 */
+	public MockMvcCache(int maxSize) {
+		Assert.isTrue(maxSize > 0, "The maximum size must be greater than 0");
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Return the cache shared within the JVM (i.e. across test classes) with
+	 * a maximum size of {@link #DEFAULT_MAX_SIZE}.
+	 */
+	public static MockMvcCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+	/**
+	 * Return the MockMvc cached under the given key or create one with the
+	 * given factory, cache it, and return it.
+	 */
+	MockMvc getMockMvc(Object key, MockMvcFactory factory) {
+		synchronized (this.entries) {
+			CacheEntry entry = this.entries.get(key);
+			if (entry != null) {
+				this.hitCount++;
+				return entry.mockMvc;
+			}
+			this.missCount++;
+		}
+
+		// Build outside the lock so different configurations can build concurrently..
+		CacheEntry newEntry = new CacheEntry(factory.createMockMvc(), factory.getApplicationContext());
+
+		List<CacheEntry> evicted = new ArrayList<CacheEntry>();
+		MockMvc mockMvc;
+		synchronized (this.entries) {
+			CacheEntry existing = this.entries.get(key);
+			if (existing != null) {
+				// Built concurrently for the same configuration..
+				evicted.add(newEntry);
+				mockMvc = existing.mockMvc;
+			}
+			else {
+				this.entries.put(key, newEntry);
+				mockMvc = newEntry.mockMvc;
+				Iterator<CacheEntry> iterator = this.entries.values().iterator();
+				while (this.entries.size() > this.maxSize) {
+					evicted.add(iterator.next());
+					iterator.remove();
+					this.evictionCount++;
+				}
+			}
+		}
+
+		for (CacheEntry entry : evicted) {
+			entry.close();
+		}
+		return mockMvc;
+	}
+
+	/**
+	 * Return the maximum number of cached MockMvc instances.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Return the number of currently cached MockMvc instances.
+	 */
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * Return how many times a cached MockMvc was returned.
+	 */
+	public long getHitCount() {
+		synchronized (this.entries) {
+			return this.hitCount;
+		}
+	}
+
+	/**
+	 * Return how many times a MockMvc had to be built.
+	 */
+	public long getMissCount() {
+		synchronized (this.entries) {
+			return this.missCount;
+		}
+	}
+
+	/**
+	 * Return how many MockMvc instances were evicted to stay within the maximum size.
+	 */
+	public long getEvictionCount() {
+		synchronized (this.entries) {
+			return this.evictionCount;
+		}
+	}
+
+	/**
+	 * Remove all cached MockMvc instances and close their application contexts.
+	 * Statistics are not reset.
+	 */
+	public void clear() {
+		List<CacheEntry> removed;
+		synchronized (this.entries) {
+			removed = new ArrayList<CacheEntry>(this.entries.values());
+			this.entries.clear();
+		}
+		for (CacheEntry entry : removed) {
+			entry.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		synchronized (this.entries) {
+			return "MockMvcCache [size=" + this.entries.size() + ", maxSize=" + this.maxSize +
+					", hitCount=" + this.hitCount + ", missCount=" + this.missCount +
+					", evictionCount=" + this.evictionCount + "]";
+		}
+	}
+
+
+	/**
+	 * Creates the MockMvc to cache on a cache miss.
+	 */
+	interface MockMvcFactory {
+
+		MockMvc createMockMvc();
+
+		ConfigurableApplicationContext getApplicationContext();
+	}
+
+	private static class CacheEntry {
+
+		private final MockMvc mockMvc;
+
+		private final ConfigurableApplicationContext applicationContext;
+
+		public CacheEntry(MockMvc mockMvc, ConfigurableApplicationContext applicationContext) {
+			this.mockMvc = mockMvc;
+			this.applicationContext = applicationContext;
+		}
+
+		public void close() {
+			try {
+				this.applicationContext.close();
+			}
+			catch (Throwable ex) {
+				logger.warn("Failed to close evicted application context", ex);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.RequestBuilder;
+import org.springframework.test.web.server.ResultActions;
+import org.springframework.test.web.server.TestDispatcherServlet;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MockMvc} that shares the DispatcherServlet and application context
+ * of a {@link ForkableMockMvc} but has its own instances of the forkable beans.
+ * A fork instance is created from the bean definition the first time a request
+ * performed through the fork uses the bean, or it can be provided up front
+ * with {@link #setBean(String, Object)}, e.g. to stub a service.
+ *
+ * <p>Fork instances of beans with a destroy callback are destroyed on
+ * {@link #close()}.
+ *
+ * @author Rossen Stoyanchev
+ * @see ForkableMockMvc#fork()
+ */
+public class MockMvcFork extends MockMvc {
+
+	private final ForkableBeans forkableBeans;
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	MockMvcFork(TestDispatcherServlet dispatcherServlet, ForkableBeans forkableBeans) {
+		super(dispatcherServlet);
+		this.forkableBeans = forkableBeans;
+		this.beanFactory = forkableBeans.createForkBeanFactory();
+	}
+
+	/**
+	 * Use the given instance for a forkable bean in this fork. Must be called
+	 * before the fork instance of the bean is first used.
+	 * @param beanName the name of one of the forkable beans
+	 * @param bean the instance to use
+	 */
+	public MockMvcFork setBean(String beanName, Object bean) {
+		Assert.isTrue(this.forkableBeans.getBeanNames().contains(beanName), "'" + beanName + "' is not forkable");
+		this.beanFactory.registerSingleton(beanName, bean);
+		return this;
+	}
+
+	/**
+	 * Return the instance of a forkable bean for this fork, creating it if necessary.
+	 * @param beanName the name of one of the forkable beans
+	 */
+	public Object getBean(String beanName) {
+		Assert.isTrue(this.forkableBeans.getBeanNames().contains(beanName), "'" + beanName + "' is not forkable");
+		return this.beanFactory.getBean(beanName);
+	}
+
+	/**
+	 * Return the instance of a forkable bean for this fork, creating it if necessary.
+	 * @param beanName the name of one of the forkable beans
+	 * @param requiredType the type the bean must match
+	 */
+	public <T> T getBean(String beanName, Class<T> requiredType) {
+		Assert.isTrue(this.forkableBeans.getBeanNames().contains(beanName), "'" + beanName + "' is not forkable");
+		return this.beanFactory.getBean(beanName, requiredType);
+	}
+
+	/**
+	 * Perform the request with the forkable beans of this fork.
+	 */
+	@Override
+	public ResultActions perform(RequestBuilder requestBuilder) throws Exception {
+		MockMvcFork previous = this.forkableBeans.bindFork(this);
+		try {
+			return super.perform(requestBuilder);
+		}
+		finally {
+			this.forkableBeans.restoreFork(previous);
+		}
+	}
+
+	/**
+	 * Destroy the fork instances of the forkable beans.
+	 */
+	public void close() {
+		this.beanFactory.destroySingletons();
+	}
+
+}
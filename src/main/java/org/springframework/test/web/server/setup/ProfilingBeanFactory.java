@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+/**
+ * A {@link DefaultListableBeanFactory} that reports the creation of each bean
+ * to a {@link StartupProfiler}. Timing {@link #createBean} rather than using a
+ * BeanPostProcessor covers all beans including those created through a
+ * factory method, e.g. from @Bean methods, for which
+ * InstantiationAwareBeanPostProcessors are not invoked.
+ *
+ * @author Rossen Stoyanchev
+ */
+class ProfilingBeanFactory extends DefaultListableBeanFactory {
+
+	private volatile StartupProfiler startupProfiler;
+
+	public ProfilingBeanFactory(BeanFactory parentBeanFactory) {
+		super(parentBeanFactory);
+	}
+
+	public void setStartupProfiler(StartupProfiler startupProfiler) {
+		this.startupProfiler = startupProfiler;
+	}
+
+	@Override
+	protected Object createBean(String beanName, RootBeanDefinition mbd, Object[] args) throws BeanCreationException {
+		StartupProfiler profiler = this.startupProfiler;
+		if (profiler == null) {
+			return super.createBean(beanName, mbd, args);
+		}
+		profiler.beanCreationStarted(beanName);
+		try {
+			return super.createBean(beanName, mbd, args);
+		}
+		finally {
+			profiler.beanCreationFinished(beanName);
+		}
+	}
+
+}
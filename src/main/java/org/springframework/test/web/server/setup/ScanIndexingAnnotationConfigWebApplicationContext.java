@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * An {@link AnnotationConfigWebApplicationContext} that can resolve class path
+ * scanning patterns, e.g. from @ComponentScan, through a {@link ClasspathScanIndex}.
+ * The context is the ResourceLoader of the component scanner, so all scans go
+ * through {@link #getResources(String)}.
+ *
+ * <p>The bean factory is a {@link ProfilingBeanFactory} so that the creation
+ * of beans can be timed.
+ *
+ * @author Rossen Stoyanchev
+ */
+class ScanIndexingAnnotationConfigWebApplicationContext extends AnnotationConfigWebApplicationContext {
+
+	private ClasspathScanIndex scanIndex;
+
+	public void setScanIndex(ClasspathScanIndex scanIndex) {
+		this.scanIndex = scanIndex;
+	}
+
+	@Override
+	protected DefaultListableBeanFactory createBeanFactory() {
+		return new ProfilingBeanFactory(getInternalParentBeanFactory());
+	}
+
+	@Override
+	public Resource[] getResources(String locationPattern) throws IOException {
+		if (this.scanIndex != null && this.scanIndex.supports(locationPattern)) {
+			return this.scanIndex.getResources(locationPattern, new ResourcePatternResolver() {
+
+				public Resource[] getResources(String pattern) throws IOException {
+					return resolveResources(pattern);
+				}
+
+				public Resource getResource(String location) {
+					return ScanIndexingAnnotationConfigWebApplicationContext.this.getResource(location);
+				}
+
+				public ClassLoader getClassLoader() {
+					return ScanIndexingAnnotationConfigWebApplicationContext.this.getClassLoader();
+				}
+			});
+		}
+		return super.getResources(locationPattern);
+	}
+
+	private Resource[] resolveResources(String locationPattern) throws IOException {
+		return super.getResources(locationPattern);
+	}
+
+}
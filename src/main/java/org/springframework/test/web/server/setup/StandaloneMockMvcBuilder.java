@@ -16,11 +16,17 @@
 
 package org.springframework.test.web.server.setup;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.ServletContext;
 
@@ -34,9 +40,11 @@ import org.springframework.mock.web.MockServletContext;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils.MethodFilter;
 import org.springframework.validation.Validator;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.WebApplicationObjectSupport;
+import org.springframework.web.method.HandlerMethodSelector;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.servlet.DispatcherServlet;
@@ -51,6 +59,7 @@ import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 import org.springframework.web.servlet.handler.MappedInterceptor;
 import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.servlet.theme.FixedThemeResolver;
@@ -74,6 +83,11 @@ import org.springframework.web.servlet.view.InternalResourceViewResolver;
  * use (see {@link #setSingleView(View)}) or by providing a list of
  * ViewResolver types (see {@link #setViewResolvers(ViewResolver...)}).
  *
+ * <p>The parts of the infrastructure that do not depend on an application
+ * context, e.g. message converters and argument resolvers, can be built once
+ * and shared by many builders, see {@link #buildInfrastructure()}. Builders
+ * that don't customize any of those parts share a default infrastructure.
+ *
  * @author Rossen Stoyanchev
  */
 public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
@@ -96,16 +110,18 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 
 	private List<ViewResolver> viewResolvers;
 
-	private LocaleResolver localeResolver = new AcceptHeaderLocaleResolver();
+	private LocaleResolver localeResolver = null;
 
 	private FlashMapManager flashMapManager = null;
 
+	private StandaloneMvcInfrastructure infrastructure;
+
 	/**
 	 * Protected constructor. Not intended for direct instantiation.
 	 * @see MockMvcBuilders#standaloneSetup(Object...)
 	 */
 	protected StandaloneMockMvcBuilder(Object[] controllers) {
-		Assert.isTrue(!ObjectUtils.isEmpty(controllers), "At least one controller is required");
+		Assert.notNull(controllers, "'controllers' must not be null");
 		this.controllers = controllers;
 	}
 
@@ -218,6 +234,37 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 		return this;
 	}
 
+	@Override
+	public StandaloneMockMvcBuilder profileStartup() {
+		super.profileStartup();
+		return this;
+	}
+
+	/**
+	 * Use an infrastructure built once with {@link #buildInfrastructure()},
+	 * possibly by another builder, instead of building it from the properties
+	 * of this builder. When set, the message converters, validator, conversion
+	 * service, custom argument resolvers and return value handlers,
+	 * interceptors, and exception resolvers of this builder are ignored.
+	 */
+	public StandaloneMockMvcBuilder setInfrastructure(StandaloneMvcInfrastructure infrastructure) {
+		this.infrastructure = infrastructure;
+		return this;
+	}
+
+	/**
+	 * Build the parts of the Spring MVC infrastructure configured through this
+	 * builder that do not depend on an application context so that they can
+	 * be shared by other builders through {@link #setInfrastructure}.
+	 * Controllers are not required for this method.
+	 */
+	public StandaloneMvcInfrastructure buildInfrastructure() {
+		WebMvcConfig config = new WebMvcConfig(null);
+		RequestMappingHandlerAdapter handlerAdapter = config.requestMappingHandlerAdapter();
+		return new StandaloneMvcInfrastructure(handlerAdapter, this.handlerExceptionResolvers,
+				config.getHandlerInterceptors());
+	}
+
 	@Override
 	protected ServletContext initServletContext() {
 		return new MockServletContext();
@@ -225,21 +272,27 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 
 	@Override
 	protected WebApplicationContext initWebApplicationContext(ServletContext servletContext) {
+		Assert.isTrue(!ObjectUtils.isEmpty(this.controllers), "At least one controller is required");
 		StubWebApplicationContext wac = new StubWebApplicationContext(servletContext);
 		registerMvcSingletons(wac);
 		return wac;
 	}
 
 	private void registerMvcSingletons(StubWebApplicationContext wac) {
-		WebMvcConfig config = new WebMvcConfig();
+		StandaloneMvcInfrastructure infrastructure = getInfrastructure();
+		WebMvcConfig config = new WebMvcConfig(infrastructure);
 
-		RequestMappingHandlerMapping handlerMapping = config.requestMappingHandlerMapping();
+		StaticRequestMappingHandlerMapping handlerMapping = new StaticRequestMappingHandlerMapping();
+		handlerMapping.registerHandlers(this.controllers);
+		handlerMapping.setOrder(0);
+		handlerMapping.setInterceptors(infrastructure.getInterceptors());
 		extendRequestMappingHandlerMapping(handlerMapping);
 		handlerMapping.setServletContext(wac.getServletContext());
 		handlerMapping.setApplicationContext(wac);
 		wac.addBean("requestMappingHandlerMapping", handlerMapping);
 
-		RequestMappingHandlerAdapter handlerAdapter = config.requestMappingHandlerAdapter();
+		RequestMappingHandlerAdapter handlerAdapter = new RequestMappingHandlerAdapter();
+		infrastructure.configureHandlerAdapter(handlerAdapter);
 		extendRequestMappingHandlerAdapter(handlerAdapter);
 		handlerAdapter.setServletContext(wac.getServletContext());
 		handlerAdapter.setApplicationContext(wac);
@@ -255,24 +308,50 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 		}
 
 		wac.addBeans(initViewResolvers(wac));
-		wac.addBean(DispatcherServlet.LOCALE_RESOLVER_BEAN_NAME, this.localeResolver);
+		wac.addBean(DispatcherServlet.LOCALE_RESOLVER_BEAN_NAME,
+				(this.localeResolver != null) ? this.localeResolver : new AcceptHeaderLocaleResolver());
 		wac.addBean(DispatcherServlet.THEME_RESOLVER_BEAN_NAME, new FixedThemeResolver());
 		wac.addBean(DispatcherServlet.REQUEST_TO_VIEW_NAME_TRANSLATOR_BEAN_NAME, new DefaultRequestToViewNameTranslator());
+		wac.addBean(DispatcherServlet.FLASH_MAP_MANAGER_BEAN_NAME,
+				(this.flashMapManager != null) ? this.flashMapManager : initFlashMapManager());
+	}
 
-		if (this.flashMapManager == null) {
-			initFlashMapManager();
+	private StandaloneMvcInfrastructure getInfrastructure() {
+		if (this.infrastructure != null) {
+			return this.infrastructure;
+		}
+		else if (isDefaultInfrastructure()) {
+			return DefaultInfrastructureHolder.infrastructure;
+		}
+		else {
+			return buildInfrastructure();
 		}
-		wac.addBean(DispatcherServlet.FLASH_MAP_MANAGER_BEAN_NAME, this.flashMapManager);
 	}
 
-	private void initFlashMapManager() {
+	/**
+	 * Whether none of the infrastructure properties has been customized, in
+	 * which case the default infrastructure can be shared. Sub-classes may
+	 * customize the infrastructure through protected methods and never share it.
+	 */
+	private boolean isDefaultInfrastructure() {
+		return (getClass() == StandaloneMockMvcBuilder.class
+				&& this.messageConverters.isEmpty()
+				&& this.customArgumentResolvers.isEmpty()
+				&& this.customReturnValueHandlers.isEmpty()
+				&& this.mappedInterceptors.isEmpty()
+				&& this.validator == null
+				&& this.conversionService == null
+				&& this.handlerExceptionResolvers.isEmpty());
+	}
+
+	private FlashMapManager initFlashMapManager() {
 		String className = "org.springframework.web.servlet.support.DefaultFlashMapManager";
 		if (ClassUtils.isPresent(className, getClass().getClassLoader())) {
-			this.flashMapManager = instantiateClass(className);
+			return instantiateClass(className);
 		}
 		else {
 			className = "org.springframework.web.servlet.support.SessionFlashMapManager";
-			this.flashMapManager = instantiateClass(className);
+			return instantiateClass(className);
 		}
 	}
 
@@ -299,42 +378,48 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 
 	/**
 	 * Allows sub-classes to customize the RequestMappingHandlerAdapter instance.
+	 * Invoked once for the adapter of each MockMvc, after the shared parts of
+	 * the infrastructure have been applied to it and before it is initialized.
 	 */
 	protected void extendRequestMappingHandlerAdapter(RequestMappingHandlerAdapter handlerAdapter) {
 	}
 
 	private List<ViewResolver> initViewResolvers(WebApplicationContext wac) {
-		this.viewResolvers = (this.viewResolvers == null) ?
-				Arrays.<ViewResolver>asList(new InternalResourceViewResolver()) : viewResolvers;
+		List<ViewResolver> viewResolvers = (this.viewResolvers == null) ?
+				Arrays.<ViewResolver>asList(new InternalResourceViewResolver()) : this.viewResolvers;
 
-		for (Object viewResolver : this.viewResolvers) {
+		for (Object viewResolver : viewResolvers) {
 			if (viewResolver instanceof WebApplicationObjectSupport) {
 				((WebApplicationObjectSupport) viewResolver).setApplicationContext(wac);
 			}
 		}
 
-		return this.viewResolvers;
+		return viewResolvers;
 	}
 
 
 	/**
 	 * A sub-class of {@link WebMvcConfigurationSupport} that allows re-using
 	 * the MVC Java config setup with customizations for the "standalone" setup.
+	 * When created with an infrastructure, message converters and exception
+	 * resolvers come from it rather than from the builder.
 	 */
 	private class WebMvcConfig extends WebMvcConfigurationSupport {
 
-		@Override
-		public RequestMappingHandlerMapping requestMappingHandlerMapping() {
-			StaticRequestMappingHandlerMapping handlerMapping = new StaticRequestMappingHandlerMapping();
-			handlerMapping.registerHandlers(StandaloneMockMvcBuilder.this.controllers);
-			handlerMapping.setOrder(0);
-			handlerMapping.setInterceptors(getInterceptors());
-			return handlerMapping;
+		private final StandaloneMvcInfrastructure infrastructure;
+
+		public WebMvcConfig(StandaloneMvcInfrastructure infrastructure) {
+			this.infrastructure = infrastructure;
+		}
+
+		public Object[] getHandlerInterceptors() {
+			return getInterceptors();
 		}
 
 		@Override
 		protected void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-			converters.addAll(StandaloneMockMvcBuilder.this.messageConverters);
+			converters.addAll((this.infrastructure != null) ?
+					this.infrastructure.getMessageConverters() : StandaloneMockMvcBuilder.this.messageConverters);
 		}
 
 		@Override
@@ -381,20 +466,63 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 
 		@Override
 		protected void configureHandlerExceptionResolvers(List<HandlerExceptionResolver> exceptionResolvers) {
-			exceptionResolvers.addAll(StandaloneMockMvcBuilder.this.handlerExceptionResolvers);
+			exceptionResolvers.addAll((this.infrastructure != null) ?
+					this.infrastructure.getHandlerExceptionResolvers() : StandaloneMockMvcBuilder.this.handlerExceptionResolvers);
 		}
 	}
 
+	/**
+	 * Holds the infrastructure shared by builders that have not been customized.
+	 */
+	private static class DefaultInfrastructureHolder {
+
+		private static final StandaloneMvcInfrastructure infrastructure =
+				new StandaloneMockMvcBuilder(new Object[0]).buildInfrastructure();
+	}
+
 	/**
 	 * A {@link RequestMappingHandlerMapping} allowing direct registration of controller
 	 * instances rather than scanning a WebApplicationContext.
+	 *
+	 * <p>The request mappings detected for a controller class are cached, so
+	 * registering further instances of the same class does not repeat the
+	 * introspection of its methods and annotations. Registration always takes
+	 * place before {@link #extendRequestMappingHandlerMapping} is invoked and
+	 * therefore always with the default settings of the handler mapping.
 	 */
 	private static class StaticRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
 
+		private static final ConcurrentMap<Class<?>, Map<Method, RequestMappingInfo>> mappingCache =
+				new ConcurrentHashMap<Class<?>, Map<Method, RequestMappingInfo>>();
+
 		public void registerHandlers(Object...handlers) {
 			for (Object handler : handlers) {
-				super.detectHandlerMethods(handler);
+				for (Map.Entry<Method, RequestMappingInfo> entry : getMappings(handler).entrySet()) {
+					registerHandlerMethod(handler, entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		private Map<Method, RequestMappingInfo> getMappings(Object handler) {
+			final Class<?> userType = ClassUtils.getUserClass(handler.getClass());
+			Map<Method, RequestMappingInfo> mappings = mappingCache.get(userType);
+			if (mappings == null) {
+				mappings = new LinkedHashMap<Method, RequestMappingInfo>();
+				Set<Method> methods = HandlerMethodSelector.selectMethods(userType, new MethodFilter() {
+					public boolean matches(Method method) {
+						return getMappingForMethod(method, userType) != null;
+					}
+				});
+				for (Method method : methods) {
+					mappings.put(method, getMappingForMethod(method, userType));
+				}
+				mappings = Collections.unmodifiableMap(mappings);
+				Map<Method, RequestMappingInfo> existing = mappingCache.putIfAbsent(userType, mappings);
+				if (existing != null) {
+					mappings = existing;
+				}
 			}
+			return mappings;
 		}
 	}
 
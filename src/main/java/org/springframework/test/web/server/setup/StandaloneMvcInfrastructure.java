@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.support.WebBindingInitializer;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * The parts of the Spring MVC infrastructure of a {@link StandaloneMockMvcBuilder}
+ * that do not depend on an application context, i.e. the message converters,
+ * the binding initializer with its conversion service and validator, the
+ * custom argument resolvers and return value handlers, the custom exception
+ * resolvers, and the interceptors. The message converters, conversion
+ * service, and validator are the parts that are expensive to create.
+ *
+ * <p>An instance can be shared by any number of builders. Each MockMvc still
+ * gets its own handler mapping, handler adapter, exception resolver, view
+ * resolvers and other DispatcherServlet strategies, created from the shared
+ * parts and bound to its own application context. The handler adapter gets
+ * its own copies of the shared lists and resolves its default argument
+ * resolvers and return value handlers itself. Example, assuming a static
+ * import of {@code MockMvcBuilders.*}:
+ *
+ * <pre>
+ * static final StandaloneMvcInfrastructure infrastructure =
+ *     standaloneSetup().setMessageConverters(converter).buildInfrastructure();
+ *
+ * MockMvc mockMvc = standaloneSetup(new PersonController())
+ *     .setInfrastructure(infrastructure)
+ *     .build();
+ * </pre>
+ *
+ * <p>Builders that are not customized share a default instance automatically.
+ *
+ * @author Rossen Stoyanchev
+ * @see StandaloneMockMvcBuilder#buildInfrastructure()
+ * @see StandaloneMockMvcBuilder#setInfrastructure(StandaloneMvcInfrastructure)
+ */
+public final class StandaloneMvcInfrastructure {
+
+	private final List<HttpMessageConverter<?>> messageConverters;
+
+	private final WebBindingInitializer webBindingInitializer;
+
+	private final List<HandlerMethodArgumentResolver> customArgumentResolvers;
+
+	private final List<HandlerMethodReturnValueHandler> customReturnValueHandlers;
+
+	private final List<HandlerExceptionResolver> handlerExceptionResolvers;
+
+	private final Object[] interceptors;
+
+	/**
+	 * Create an instance from a configured but not initialized handler
+	 * adapter, which is used only to take the shared parts from.
+	 */
+	StandaloneMvcInfrastructure(RequestMappingHandlerAdapter handlerAdapter,
+			List<HandlerExceptionResolver> handlerExceptionResolvers, Object[] interceptors) {
+
+		this.messageConverters = copy(handlerAdapter.getMessageConverters());
+		this.webBindingInitializer = handlerAdapter.getWebBindingInitializer();
+		this.customArgumentResolvers = copy(handlerAdapter.getCustomArgumentResolvers());
+		this.customReturnValueHandlers = copy(handlerAdapter.getCustomReturnValueHandlers());
+		this.handlerExceptionResolvers = copy(handlerExceptionResolvers);
+		this.interceptors = interceptors;
+	}
+
+	private static <T> List<T> copy(List<T> list) {
+		return (list != null) ? Collections.unmodifiableList(new ArrayList<T>(list)) : Collections.<T>emptyList();
+	}
+
+	/**
+	 * Return the message converters, including the default ones if none were configured.
+	 */
+	List<HttpMessageConverter<?>> getMessageConverters() {
+		return this.messageConverters;
+	}
+
+	/**
+	 * Return the custom exception resolvers, possibly an empty list.
+	 */
+	List<HandlerExceptionResolver> getHandlerExceptionResolvers() {
+		return this.handlerExceptionResolvers;
+	}
+
+	/**
+	 * Return the interceptors for the handler mapping of each builder.
+	 */
+	Object[] getInterceptors() {
+		return this.interceptors.clone();
+	}
+
+	/**
+	 * Configure a handler adapter created for one MockMvc with modifiable
+	 * copies of the shared lists.
+	 */
+	void configureHandlerAdapter(RequestMappingHandlerAdapter handlerAdapter) {
+		handlerAdapter.setMessageConverters(new ArrayList<HttpMessageConverter<?>>(this.messageConverters));
+		handlerAdapter.setWebBindingInitializer(this.webBindingInitializer);
+		handlerAdapter.setCustomArgumentResolvers(
+				new ArrayList<HandlerMethodArgumentResolver>(this.customArgumentResolvers));
+		handlerAdapter.setCustomReturnValueHandlers(
+				new ArrayList<HandlerMethodReturnValueHandler>(this.customReturnValueHandlers));
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.test.web.server.StartupReport;
+
+/**
+ * Records the times of the build phases of an {@link AbstractMockMvcBuilder}
+ * and, through a {@link ProfilingBeanFactory}, the creation time of each bean
+ * in an application context refreshed by the builder. Beans created while
+ * another bean is being created (i.e. its dependencies) are tracked on a
+ * per-thread stack so that their time can be subtracted from the time of the
+ * dependent bean.
+ *
+ * @author Rossen Stoyanchev
+ */
+class StartupProfiler {
+
+	private final Map<String, Long> phaseTimes = new LinkedHashMap<String, Long>();
+
+	private final Map<String, Long> beanTimes = Collections.synchronizedMap(new HashMap<String, Long>());
+
+	private final ThreadLocal<LinkedList<BeanTiming>> beansInCreation = new ThreadLocal<LinkedList<BeanTiming>>() {
+		@Override
+		protected LinkedList<BeanTiming> initialValue() {
+			return new LinkedList<BeanTiming>();
+		}
+	};
+
+	/**
+	 * Record the time of a build phase that started at the given time.
+	 * @param startNanos the value of {@link System#nanoTime()} at the start of the phase
+	 */
+	public void recordPhase(String phase, long startNanos) {
+		this.phaseTimes.put(phase, System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Return a BeanFactoryPostProcessor to add to an application context
+	 * before it is refreshed in order to record the creation time of beans.
+	 * Beans are timed only if the context uses a {@link ProfilingBeanFactory},
+	 * as the contexts created by {@link MockMvcBuilders} do.
+	 */
+	public BeanFactoryPostProcessor getBeanTimingPostProcessor() {
+		return new BeanFactoryPostProcessor() {
+			public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+				if (beanFactory instanceof ProfilingBeanFactory) {
+					((ProfilingBeanFactory) beanFactory).setStartupProfiler(StartupProfiler.this);
+				}
+			}
+		};
+	}
+
+	public StartupReport createReport() {
+		synchronized (this.beanTimes) {
+			return new StartupReport(this.phaseTimes, this.beanTimes);
+		}
+	}
+
+	void beanCreationStarted(String beanName) {
+		this.beansInCreation.get().addFirst(new BeanTiming(beanName));
+	}
+
+	void beanCreationFinished(String beanName) {
+		LinkedList<BeanTiming> stack = this.beansInCreation.get();
+		BeanTiming timing = stack.removeFirst();
+		long nanos = System.nanoTime() - timing.startNanos;
+		if (!stack.isEmpty()) {
+			stack.getFirst().nestedNanos += nanos;
+		}
+		recordBean(beanName, nanos - timing.nestedNanos);
+	}
+
+	private void recordBean(String beanName, long nanos) {
+		synchronized (this.beanTimes) {
+			Long total = this.beanTimes.get(beanName);
+			this.beanTimes.put(beanName, (total != null) ? total + nanos : nanos);
+		}
+	}
+
+
+	private static class BeanTiming {
+
+		private final String beanName;
+
+		private final long startNanos = System.nanoTime();
+
+		private long nestedNanos;
+
+		public BeanTiming(String beanName) {
+			this.beanName = beanName;
+		}
+	}
+
+}
@@ -18,16 +18,24 @@ package org.springframework.test.web.server.setup;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.ServletContext;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.DependencyDescriptor;
@@ -43,7 +51,9 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.ServletContextResourcePatternResolver;
 
@@ -60,6 +70,8 @@ import org.springframework.web.context.support.ServletContextResourcePatternReso
  */
 class StubWebApplicationContext implements WebApplicationContext {
 
+	private static final Object NO_ANNOTATION = new Object();
+
 	private final ServletContext servletContext;
 
 	private final StubBeanFactory beanFactory = new StubBeanFactory();
@@ -274,8 +286,132 @@ class StubWebApplicationContext implements WebApplicationContext {
 	 * An extension of StaticListableBeanFactory that implements 
 	 * AutowireCapableBeanFactory in order to allow bean initialization of
 	 * {@link ApplicationContextAware} singletons.
+	 *
+	 * <p>Beans are indexed by their class, super classes, and interfaces as they
+	 * are added so that lookups by type don't have to check every singleton.
+	 * Annotation lookups are cached. Lookups involving FactoryBeans fall back
+	 * on the implementation of the super class.
 	 */
 	private class StubBeanFactory extends StaticListableBeanFactory implements AutowireCapableBeanFactory {
+
+		private final Map<String, Object> beans = new LinkedHashMap<String, Object>();
+
+		private final Map<Class<?>, List<String>> typeIndex = new HashMap<Class<?>, List<String>>();
+
+		private boolean containsFactoryBean;
+
+		private final ConcurrentMap<String, ConcurrentMap<Class<?>, Object>> annotationCache =
+				new ConcurrentHashMap<String, ConcurrentMap<Class<?>, Object>>();
+
+		private final ConcurrentMap<Class<?>, Map<String, Object>> beansWithAnnotationCache =
+				new ConcurrentHashMap<Class<?>, Map<String, Object>>();
+
+		@Override
+		public void addBean(String name, Object bean) {
+			synchronized (this.beans) {
+				super.addBean(name, bean);
+				if (this.beans.remove(name) != null) {
+					for (List<String> names : this.typeIndex.values()) {
+						names.remove(name);
+					}
+				}
+				this.beans.put(name, bean);
+				for (Class<?> type : getTypeHierarchy(bean.getClass())) {
+					List<String> names = this.typeIndex.get(type);
+					if (names == null) {
+						names = new ArrayList<String>();
+						this.typeIndex.put(type, names);
+					}
+					names.add(name);
+				}
+				this.containsFactoryBean |= (bean instanceof FactoryBean);
+				this.annotationCache.remove(name);
+				this.beansWithAnnotationCache.clear();
+			}
+		}
+
+		private Set<Class<?>> getTypeHierarchy(Class<?> beanClass) {
+			Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+			for (Class<?> type = beanClass; type != null; type = type.getSuperclass()) {
+				types.add(type);
+			}
+			for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(beanClass)) {
+				addInterfaceHierarchy(ifc, types);
+			}
+			return types;
+		}
+
+		private void addInterfaceHierarchy(Class<?> ifc, Set<Class<?>> types) {
+			if (types.add(ifc)) {
+				for (Class<?> superIfc : ifc.getInterfaces()) {
+					addInterfaceHierarchy(superIfc, types);
+				}
+			}
+		}
+
+		private boolean useIndex(Class<?> type) {
+			return !this.containsFactoryBean && (type == null || !FactoryBean.class.isAssignableFrom(type));
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public String[] getBeanNamesForType(Class type, boolean includeNonSingletons, boolean includeFactoryBeans) {
+			synchronized (this.beans) {
+				if (!useIndex(type)) {
+					return super.getBeanNamesForType(type, includeNonSingletons, includeFactoryBeans);
+				}
+				Collection<String> names = (type != null) ? this.typeIndex.get(type) : this.beans.keySet();
+				return (names != null) ? StringUtils.toStringArray(names) : new String[0];
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> Map<String, T> getBeansOfType(Class<T> type, boolean includeNonSingletons, boolean includeFactoryBeans)
+				throws BeansException {
+
+			synchronized (this.beans) {
+				if (!useIndex(type)) {
+					return super.getBeansOfType(type, includeNonSingletons, includeFactoryBeans);
+				}
+				Map<String, T> matches = new LinkedHashMap<String, T>();
+				for (String name : getBeanNamesForType(type, includeNonSingletons, includeFactoryBeans)) {
+					matches.put(name, (T) this.beans.get(name));
+				}
+				return matches;
+			}
+		}
+
+		@Override
+		public Map<String, Object> getBeansWithAnnotation(Class<? extends Annotation> annotationType)
+				throws BeansException {
+
+			Map<String, Object> matches = this.beansWithAnnotationCache.get(annotationType);
+			if (matches == null) {
+				matches = super.getBeansWithAnnotation(annotationType);
+				this.beansWithAnnotationCache.put(annotationType, matches);
+			}
+			return new LinkedHashMap<String, Object>(matches);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <A extends Annotation> A findAnnotationOnBean(String beanName, Class<A> annotationType) {
+			ConcurrentMap<Class<?>, Object> annotations = this.annotationCache.get(beanName);
+			if (annotations == null) {
+				annotations = new ConcurrentHashMap<Class<?>, Object>();
+				ConcurrentMap<Class<?>, Object> existing = this.annotationCache.putIfAbsent(beanName, annotations);
+				if (existing != null) {
+					annotations = existing;
+				}
+			}
+			Object annotation = annotations.get(annotationType);
+			if (annotation == null) {
+				annotation = super.findAnnotationOnBean(beanName, annotationType);
+				annotations.put(annotationType, (annotation != null) ? annotation : NO_ANNOTATION);
+			}
+			return (annotation != NO_ANNOTATION) ? (A) annotation : null;
+		}
 		
 		public Object initializeBean(Object existingBean, String beanName) throws BeansException {
 			if (existingBean instanceof ApplicationContextAware) {
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.support;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.springframework.util.Assert;
+
+/**
+ * An {@link InputStream} that reads the remaining bytes of a {@link ByteBuffer},
+ * e.g. a memory-mapped file, without copying them to the heap first. The
+ * position of the buffer is advanced as bytes are read, so each stream should
+ * be given its own {@link ByteBuffer#duplicate() duplicate} of a shared buffer.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class ByteBufferInputStream extends InputStream {
+
+	private final ByteBuffer buffer;
+
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		Assert.notNull(buffer, "'buffer' must not be null");
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Map the content of the given file into memory read-only. The file is
+	 * closed when this method returns; the mapping stays valid.
+	 */
+	public static ByteBuffer map(File file) throws IOException {
+		FileInputStream inputStream = new FileInputStream(file);
+		try {
+			FileChannel channel = inputStream.getChannel();
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	@Override
+	public int read() {
+		return this.buffer.hasRemaining() ? (this.buffer.get() & 0xFF) : -1;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) {
+		if (length == 0) {
+			return 0;
+		}
+		if (!this.buffer.hasRemaining()) {
+			return -1;
+		}
+		int count = Math.min(length, this.buffer.remaining());
+		this.buffer.get(bytes, offset, count);
+		return count;
+	}
+
+	@Override
+	public long skip(long n) {
+		int count = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+		this.buffer.position(this.buffer.position() + count);
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return this.buffer.remaining();
+	}
+
+}
@@ -20,10 +20,12 @@ import static org.springframework.test.web.AssertionErrors.assertTrue;
 
 import java.text.ParseException;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.hamcrest.Matcher;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.springframework.util.StringUtils;
 
 import com.jayway.jsonpath.JsonPath;
 
@@ -34,31 +36,119 @@ import com.jayway.jsonpath.JsonPath;
  */
 public class JsonPathExpectationsHelper {
 
+	/**
+	 * The default content length, in characters, at or above which
+	 * {@link #isStreamable(String)} returns {@code true}.
+	 */
+	public static final int DEFAULT_STREAMING_THRESHOLD = 1024 * 1024;
+
+	private static final Pattern EMPTY_ARRAY_PATTERN = Pattern.compile("\\[\\s*\\]");
+
+	private static final JsonPath ROOT_PATH = JsonPath.compile("$");
+
+	private static final JsonPath FIRST_ELEMENT_PATH = JsonPath.compile("$[0]");
+
 	private final String expression;
 	
 	private final JsonPath jsonPath;
 
+	private final StreamingJsonPath streamingJsonPath;
+
+	private int streamingThreshold = DEFAULT_STREAMING_THRESHOLD;
+
 	public JsonPathExpectationsHelper(String expression, Object ... args) {
 		this.expression = String.format(expression, args);
 		this.jsonPath = JsonPath.compile(this.expression);
+		this.streamingJsonPath = StreamingJsonPath.compile(this.expression);
+	}
+
+	/**
+	 * Parse the given content into the maps and lists that JSON path
+	 * expressions are evaluated against. The result may be passed to the
+	 * methods of any number of helper instances that accept parsed JSON.
+	 */
+	public static Object parseJson(String content) throws ParseException {
+		return ROOT_PATH.read(content);
+	}
+
+	/**
+	 * Set the content length, in characters, at or above which
+	 * {@link #isStreamable(String)} returns {@code true}. The default is
+	 * {@link #DEFAULT_STREAMING_THRESHOLD}.
+	 */
+	public void setStreamingThreshold(int streamingThreshold) {
+		this.streamingThreshold = streamingThreshold;
+	}
+
+	/**
+	 * Whether the given content is large enough, and the JSON path simple
+	 * enough, for the methods accepting a String to locate the addressed
+	 * values in a single pass over the content without parsing all of it
+	 * (see {@link StreamingJsonPath}). Otherwise those methods parse the
+	 * content, and the methods accepting parsed JSON allow several
+	 * expectations to share a single parse of small content.
+	 */
+	public boolean isStreamable(String content) {
+		return (this.streamingJsonPath != null && content.length() >= this.streamingThreshold);
 	}
 
 	/**
 	 * TODO
 	 * @throws ParseException 
 	 */
-	@SuppressWarnings("unchecked")
 	public <T> void assertValue(String content, Matcher<T> matcher) throws ParseException {
-		T value = (T) evaluateJsonPath(content);
-		MatcherAssert.assertThat("JSON path: " + expression, value, matcher);
+		assertJsonPathValue(evaluateJsonPath(content), matcher);
+	}
+
+	/**
+	 * Evaluate the JSON path against JSON parsed with {@link #parseJson(String)}
+	 * and assert the resulting value with the given matcher.
+	 */
+	public <T> void assertValueInJson(Object json, Matcher<T> matcher) {
+		assertJsonPathValue(this.jsonPath.read(json), matcher);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> void assertJsonPathValue(Object value, Matcher<T> matcher) {
+		MatcherAssert.assertThat("JSON path: " + expression, (T) value, matcher);
 	}
 	
 	/**
-	 * Evaluate the JSON path against the given content.
+	 * Evaluate the JSON path against the given content. Simple paths (see
+	 * {@link StreamingJsonPath}) on content that is {@link #isStreamable(String)
+	 * streamable} are evaluated by locating the addressed values in a single
+	 * pass and parsing only those, rather than parsing the entire content.
 	 * @throws ParseException 
 	 */
 	private Object evaluateJsonPath(String content) throws ParseException  {
-		return this.jsonPath.read(content);
+		List<String> values = isStreamable(content) ? this.streamingJsonPath.evaluate(content) : null;
+		if (values == null) {
+			return this.jsonPath.read(content);
+		}
+		if (this.streamingJsonPath.isDefinite()) {
+			return values.isEmpty() ? null : FIRST_ELEMENT_PATH.read("[" + values.get(0) + "]");
+		}
+		return ROOT_PATH.read("[" + StringUtils.collectionToCommaDelimitedString(values) + "]");
+	}
+
+	/**
+	 * Whether the JSON path addresses a value, determined without parsing
+	 * the value, or {@code null} if the path or content cannot be streamed.
+	 * A {@code null} value and an empty array are treated as no value.
+	 */
+	private Boolean hasJsonPathValue(String content) {
+		List<String> values = isStreamable(content) ? this.streamingJsonPath.evaluate(content) : null;
+		if (values == null) {
+			return null;
+		}
+		if (this.streamingJsonPath.isDefinite()) {
+			if (values.isEmpty()) {
+				return false;
+			}
+			String value = values.get(0);
+			return !(value.equals("null") || EMPTY_ARRAY_PATTERN.matcher(value).matches());
+		}
+		return !values.isEmpty();
 	}
 
 	/**
@@ -72,7 +162,23 @@ public class JsonPathExpectationsHelper {
 	 * TODO
 	 */
 	public void exists(String content) throws ParseException {
-		Object value = evaluateJsonPath(content);
+		Boolean hasValue = hasJsonPathValue(content);
+		if (hasValue != null) {
+			assertTrue("No value for JSON path: " + expression, hasValue);
+		}
+		else {
+			assertValueExists(evaluateJsonPath(content));
+		}
+	}
+
+	/**
+	 * Variant of {@link #exists(String)} for JSON parsed with {@link #parseJson(String)}.
+	 */
+	public void existsInJson(Object json) {
+		assertValueExists(this.jsonPath.read(json));
+	}
+
+	private void assertValueExists(Object value) {
 		String reason = "No value for JSON path: " + expression;
 		assertTrue(reason, value != null);
 		if (List.class.isInstance(value)) {
@@ -84,7 +190,20 @@ public class JsonPathExpectationsHelper {
 	 * TODO
 	 */
 	public void doesNotExist(String content) throws ParseException {
-		Object value = evaluateJsonPath(content);
+		Boolean hasValue = hasJsonPathValue(content);
+		if (hasValue == null || hasValue) {
+			assertValueDoesNotExist(evaluateJsonPath(content));
+		}
+	}
+
+	/**
+	 * Variant of {@link #doesNotExist(String)} for JSON parsed with {@link #parseJson(String)}.
+	 */
+	public void doesNotExistInJson(Object json) {
+		assertValueDoesNotExist(this.jsonPath.read(json));
+	}
+
+	private void assertValueDoesNotExist(Object value) {
 		String reason = String.format("Expected no value for JSON path: %s but found: %s", expression, value);
 		if (List.class.isInstance(value)) {
 			assertTrue(reason, ((List<?>) value).isEmpty());
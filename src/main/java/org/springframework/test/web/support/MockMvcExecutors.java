@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.support;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Creates the executors used by default to build MockMvc instances and to
+ * execute requests concurrently. Threads are daemon threads so they don't
+ * prevent the JVM from exiting.
+ *
+ * <p>Not intended for use outside of this library.
+ *
+ * @author Rossen Stoyanchev
+ */
+public abstract class MockMvcExecutors {
+
+	/**
+	 * Create a thread pool with as many threads as there are available
+	 * processors.
+	 * @param threadNamePrefix the prefix of the names of the pool's threads
+	 */
+	public static ExecutorService newFixedThreadPool(String threadNamePrefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		threadFactory.setDaemon(true);
+		return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
+	}
+
+	/**
+	 * Return the thread pool shared by the asynchronous methods of MockMvc
+	 * and its builders, created on first use and never shut down.
+	 */
+	public static ExecutorService getDefaultExecutor() {
+		return DefaultExecutorHolder.executor;
+	}
+
+
+	/**
+	 * Holder for the default executor so that it is created lazily.
+	 */
+	private static class DefaultExecutorHolder {
+
+		private static final ExecutorService executor = newFixedThreadPool("MockMvc-");
+	}
+
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Locates the values addressed by a simple JSON path in a single pass over
+ * the content, without materializing the document into maps and lists.
+ * Only the raw JSON text of matching values is extracted.
+ *
+ * <p>The supported paths start with {@code $} followed by any number of
+ * {@code .name}, {@code ['name']}, {@code [n]}, or {@code [*]} steps, e.g.
+ * {@code $.store.books[0].title} or {@code $.store.books[*]['title']}.
+ *
+ * @author Rossen Stoyanchev
+ * @see #compile(String)
+ */
+class StreamingJsonPath {
+
+	private static enum StepType { PROPERTY, INDEX, WILDCARD }
+
+	private static final Pattern LITERAL_PATTERN =
+			Pattern.compile("true|false|null|-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+	private final Step[] steps;
+
+	private final boolean definite;
+
+	private StreamingJsonPath(List<Step> steps) {
+		this.steps = steps.toArray(new Step[steps.size()]);
+		boolean definite = true;
+		for (Step step : steps) {
+			if (step.type == StepType.WILDCARD) {
+				definite = false;
+			}
+		}
+		this.definite = definite;
+	}
+
+	/**
+	 * Compile the given JSON path if it is within the supported subset.
+	 * @return the compiled path or {@code null} if it cannot be streamed
+	 */
+	public static StreamingJsonPath compile(String expression) {
+		List<Step> steps = new PathParser(expression.trim()).parse();
+		return (steps != null) ? new StreamingJsonPath(steps) : null;
+	}
+
+	/**
+	 * Whether the path addresses at most one value, i.e. it has no wildcards.
+	 */
+	public boolean isDefinite() {
+		return this.definite;
+	}
+
+	/**
+	 * Return the raw JSON text of the values addressed by the path in the
+	 * order in which they appear. For a definite path only the first matching
+	 * value is extracted. The content is always read to the end so that
+	 * content that is not well-formed is not accepted.
+	 * @return the matching values, possibly an empty list, or {@code null}
+	 * if the content contains a construct the streaming evaluation does not
+	 * handle (e.g. a property step applied to an array), is not well-formed,
+	 * or is followed by anything but whitespace, in which case the caller
+	 * should fall back on a full parse
+	 */
+	public List<String> evaluate(String content) {
+		ContentWalker walker = new ContentWalker(content);
+		try {
+			walker.walk(0);
+			walker.skipWhitespace();
+			return walker.isAtEnd() ? walker.results : null;
+		}
+		catch (StopWalking ex) {
+			return null;
+		}
+	}
+
+
+	private static class Step {
+
+		private final StepType type;
+
+		private final String name;
+
+		private final int index;
+
+		public Step(StepType type, String name, int index) {
+			this.type = type;
+			this.name = name;
+			this.index = index;
+		}
+	}
+
+	/**
+	 * Thrown to stop walking the content because it cannot be streamed.
+	 */
+	@SuppressWarnings("serial")
+	private static class StopWalking extends RuntimeException {
+
+		private static final StopWalking UNSUPPORTED = new StopWalking();
+
+		@Override
+		public Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+
+	private class ContentWalker {
+
+		private final String json;
+
+		private int index;
+
+		private final List<String> results = new ArrayList<String>();
+
+		public ContentWalker(String json) {
+			this.json = json;
+		}
+
+		public void walk(int stepIndex) {
+			skipWhitespace();
+			if (stepIndex == steps.length) {
+				int start = this.index;
+				skipValue();
+				if (!definite || this.results.isEmpty()) {
+					this.results.add(this.json.substring(start, this.index));
+				}
+				return;
+			}
+			Step step = steps[stepIndex];
+			char c = peek();
+			if (c == '{') {
+				if (step.type != StepType.PROPERTY) {
+					throw StopWalking.UNSUPPORTED;
+				}
+				this.index++;
+				skipWhitespace();
+				if (peek() == '}') {
+					this.index++;
+					return;
+				}
+				while (true) {
+					skipWhitespace();
+					String name = readString();
+					skipWhitespace();
+					expect(':');
+					if (step.name.equals(name)) {
+						walk(stepIndex + 1);
+					}
+					else {
+						skipWhitespace();
+						skipValue();
+					}
+					skipWhitespace();
+					char next = next();
+					if (next == '}') {
+						return;
+					}
+					else if (next != ',') {
+						throw StopWalking.UNSUPPORTED;
+					}
+				}
+			}
+			else if (c == '[') {
+				if (step.type == StepType.PROPERTY) {
+					throw StopWalking.UNSUPPORTED;
+				}
+				this.index++;
+				skipWhitespace();
+				if (peek() == ']') {
+					this.index++;
+					return;
+				}
+				for (int i = 0; ; i++) {
+					if (step.type == StepType.WILDCARD || step.index == i) {
+						walk(stepIndex + 1);
+					}
+					else {
+						skipWhitespace();
+						skipValue();
+					}
+					skipWhitespace();
+					char next = next();
+					if (next == ']') {
+						return;
+					}
+					else if (next != ',') {
+						throw StopWalking.UNSUPPORTED;
+					}
+				}
+			}
+			else {
+				// A step applied to a scalar value
+				throw StopWalking.UNSUPPORTED;
+			}
+		}
+
+		/**
+		 * Skip a value checking that it is well-formed. Nested objects and
+		 * arrays are tracked with a stack of their opening characters rather
+		 * than by recursion, so deeply nested content cannot overflow the stack.
+		 */
+		private void skipValue() {
+			char[] open = new char[16];
+			int depth = 0;
+			while (true) {
+				skipWhitespace();
+				char c = peek();
+				if (c == '{' || c == '[') {
+					this.index++;
+					skipWhitespace();
+					if (peek() == ((c == '{') ? '}' : ']')) {
+						this.index++;
+					}
+					else {
+						if (depth == open.length) {
+							char[] newOpen = new char[open.length * 2];
+							System.arraycopy(open, 0, newOpen, 0, open.length);
+							open = newOpen;
+						}
+						open[depth++] = c;
+						if (c == '{') {
+							skipMemberName();
+						}
+						continue;
+					}
+				}
+				else if (c == '"') {
+					skipString();
+				}
+				else {
+					skipLiteral();
+				}
+				while (depth > 0) {
+					skipWhitespace();
+					char next = next();
+					if (next == ',') {
+						if (open[depth - 1] == '{') {
+							skipMemberName();
+						}
+						break;
+					}
+					if (next != ((open[depth - 1] == '{') ? '}' : ']')) {
+						throw StopWalking.UNSUPPORTED;
+					}
+					depth--;
+				}
+				if (depth == 0) {
+					return;
+				}
+			}
+		}
+
+		private void skipMemberName() {
+			skipWhitespace();
+			skipString();
+			skipWhitespace();
+			expect(':');
+		}
+
+		private void skipLiteral() {
+			int start = this.index;
+			while (this.index < this.json.length()) {
+				char c = this.json.charAt(this.index);
+				if (!Character.isLetterOrDigit(c) && c != '-' && c != '+' && c != '.') {
+					break;
+				}
+				this.index++;
+			}
+			if (!LITERAL_PATTERN.matcher(this.json.substring(start, this.index)).matches()) {
+				throw StopWalking.UNSUPPORTED;
+			}
+		}
+
+		private void skipString() {
+			expect('"');
+			while (true) {
+				char c = next();
+				if (c == '\\') {
+					next();
+				}
+				else if (c == '"') {
+					return;
+				}
+			}
+		}
+
+		private String readString() {
+			int start = this.index + 1;
+			skipString();
+			String value = this.json.substring(start, this.index - 1);
+			return (value.indexOf('\\') != -1) ? unescape(value) : value;
+		}
+
+		private String unescape(String value) {
+			StringBuilder sb = new StringBuilder(value.length());
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c != '\\') {
+					sb.append(c);
+					continue;
+				}
+				c = value.charAt(++i);
+				switch (c) {
+					case 'b': sb.append('\b'); break;
+					case 'f': sb.append('\f'); break;
+					case 'n': sb.append('\n'); break;
+					case 'r': sb.append('\r'); break;
+					case 't': sb.append('\t'); break;
+					case 'u':
+						if (i + 4 >= value.length()) {
+							throw StopWalking.UNSUPPORTED;
+						}
+						try {
+							sb.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+						}
+						catch (NumberFormatException ex) {
+							throw StopWalking.UNSUPPORTED;
+						}
+						i += 4;
+						break;
+					default: sb.append(c);
+				}
+			}
+			return sb.toString();
+		}
+
+		private boolean isAtEnd() {
+			return (this.index == this.json.length());
+		}
+
+		private void skipWhitespace() {
+			while (this.index < this.json.length() && Character.isWhitespace(this.json.charAt(this.index))) {
+				this.index++;
+			}
+		}
+
+		private void expect(char c) {
+			if (next() != c) {
+				throw StopWalking.UNSUPPORTED;
+			}
+		}
+
+		private char peek() {
+			if (this.index >= this.json.length()) {
+				throw StopWalking.UNSUPPORTED;
+			}
+			return this.json.charAt(this.index);
+		}
+
+		private char next() {
+			char c = peek();
+			this.index++;
+			return c;
+		}
+	}
+
+	/**
+	 * Parses a JSON path into steps, returning {@code null} as soon as
+	 * anything outside the supported subset is encountered.
+	 */
+	private static class PathParser {
+
+		private final String path;
+
+		private int index;
+
+		public PathParser(String path) {
+			this.path = path;
+		}
+
+		public List<Step> parse() {
+			if (!this.path.startsWith("$")) {
+				return null;
+			}
+			this.index = 1;
+			List<Step> steps = new ArrayList<Step>();
+			while (this.index < this.path.length()) {
+				Step step;
+				char c = this.path.charAt(this.index++);
+				if (c == '.') {
+					step = parseProperty();
+				}
+				else if (c == '[') {
+					step = parseBracket();
+				}
+				else {
+					return null;
+				}
+				if (step == null) {
+					return null;
+				}
+				steps.add(step);
+			}
+			return steps;
+		}
+
+		private Step parseProperty() {
+			int start = this.index;
+			while (this.index < this.path.length()) {
+				char c = this.path.charAt(this.index);
+				if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '$') {
+					break;
+				}
+				this.index++;
+			}
+			return (this.index > start) ? new Step(StepType.PROPERTY, this.path.substring(start, this.index), -1) : null;
+		}
+
+		private Step parseBracket() {
+			int end = this.path.indexOf(']', this.index);
+			if (end == -1) {
+				return null;
+			}
+			String content = this.path.substring(this.index, end);
+			this.index = end + 1;
+			if (content.equals("*")) {
+				return new Step(StepType.WILDCARD, null, -1);
+			}
+			if (content.length() >= 2) {
+				char quote = content.charAt(0);
+				if ((quote == '\'' || quote == '"') && content.charAt(content.length() - 1) == quote) {
+					String name = content.substring(1, content.length() - 1);
+					if (name.indexOf(quote) != -1) {
+						return null;
+					}
+					return new Step(StepType.PROPERTY, name, -1);
+				}
+			}
+			if (content.length() == 0 || content.length() > 9) {
+				return null;
+			}
+			for (int i = 0; i < content.length(); i++) {
+				if (!Character.isDigit(content.charAt(i))) {
+					return null;
+				}
+			}
+			return new Step(StepType.INDEX, null, Integer.parseInt(content));
+		}
+	}
+
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.support;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Evaluates a subset of XPath in a single StAX pass over the content, i.e.
+ * without building a DOM and with memory proportional to the depth of the
+ * document rather than its size.
+ *
+ * <p>The supported subset consists of absolute or relative location paths
+ * with child ({@code /}) and descendant ({@code //}) steps, element name tests
+ * (prefixed, unprefixed, or {@code *}), an optional final attribute step, and
+ * attribute predicates of the form {@code [@name]} or {@code [@name='value']}.
+ * A location path may be wrapped in {@code count()} or {@code string()}.
+ * For example {@code count(//ns:person[@status='active'])} or
+ * {@code /people/person[@id='1']/@name}.
+ *
+ * @author Rossen Stoyanchev
+ * @see #compile(String, Map)
+ */
+class StreamingXpathExpression {
+
+	private static final int MAX_STEPS = 62;
+
+	private static final Pattern NUMBER_PATTERN = Pattern.compile("-?(\\d+(\\.\\d*)?|\\.\\d+)");
+
+	private static final ThreadLocal<XMLInputFactory> inputFactories = new ThreadLocal<XMLInputFactory>() {
+		@Override
+		protected XMLInputFactory initialValue() {
+			XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+			inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+			inputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
+			return inputFactory;
+		}
+	};
+
+	private static enum Function { NONE, COUNT, STRING }
+
+	private final Function function;
+
+	private final Step[] elementSteps;
+
+	private final Step attributeStep;
+
+	private StreamingXpathExpression(Function function, List<Step> steps) {
+		this.function = function;
+		Step lastStep = steps.get(steps.size() - 1);
+		if (lastStep.attribute) {
+			this.attributeStep = lastStep;
+			steps = steps.subList(0, steps.size() - 1);
+		}
+		else {
+			this.attributeStep = null;
+		}
+		this.elementSteps = steps.toArray(new Step[steps.size()]);
+	}
+
+	/**
+	 * Compile the given XPath expression if it is within the supported subset.
+	 * @param expression the XPath expression
+	 * @param namespaces namespace prefix bindings, or {@code null}
+	 * @return the compiled expression, or {@code null} if the expression
+	 * cannot be evaluated by streaming
+	 */
+	public static StreamingXpathExpression compile(String expression, Map<String, String> namespaces) {
+		String path = expression.trim();
+		Function function = Function.NONE;
+		if (path.startsWith("count(") && path.endsWith(")")) {
+			function = Function.COUNT;
+			path = path.substring("count(".length(), path.length() - 1).trim();
+		}
+		else if (path.startsWith("string(") && path.endsWith(")")) {
+			function = Function.STRING;
+			path = path.substring("string(".length(), path.length() - 1).trim();
+		}
+		List<Step> steps = new PathParser(path, namespaces).parseLocationPath();
+		return (steps != null) ? new StreamingXpathExpression(function, steps) : null;
+	}
+
+	/**
+	 * Whether the expression is a plain location path, i.e. it selects nodes
+	 * as opposed to returning a number or a string.
+	 */
+	public boolean isLocationPath() {
+		return (this.function == Function.NONE);
+	}
+
+	/**
+	 * Return the number of nodes selected by the location path.
+	 */
+	public int evaluateCount(Reader content) throws XMLStreamException {
+		return scan(content, false, false).count;
+	}
+
+	/**
+	 * Whether the location path selects at least one node.
+	 */
+	public boolean evaluateExists(Reader content) throws XMLStreamException {
+		return scan(content, true, false).count > 0;
+	}
+
+	/**
+	 * Evaluate the expression as a string as {@link javax.xml.xpath.XPathConstants#STRING}
+	 * would, i.e. the string value of the first selected node, or the number
+	 * of selected nodes for {@code count()}.
+	 */
+	public String evaluateString(Reader content) throws XMLStreamException {
+		if (this.function == Function.COUNT) {
+			return String.valueOf(scan(content, false, false).count);
+		}
+		String value = scan(content, true, true).value;
+		return (value != null) ? value : "";
+	}
+
+	/**
+	 * Evaluate the expression as a number as {@link javax.xml.xpath.XPathConstants#NUMBER} would.
+	 */
+	public Double evaluateNumber(Reader content) throws XMLStreamException {
+		if (this.function == Function.COUNT) {
+			return Double.valueOf(scan(content, false, false).count);
+		}
+		String value = evaluateString(content).trim();
+		return NUMBER_PATTERN.matcher(value).matches() ? Double.valueOf(value) : Double.valueOf(Double.NaN);
+	}
+
+	/**
+	 * Walk the content keeping, for every open element, the set of steps that
+	 * remain to be matched as a bit mask: bit {@code i} set means steps
+	 * {@code 0..i-1} have been matched by ancestors.
+	 */
+	private ScanResult scan(Reader content, boolean stopAtFirst, boolean collectStringValue)
+			throws XMLStreamException {
+
+		ScanResult result = new ScanResult();
+		int lastIndex = this.elementSteps.length;
+		long lastBit = 1L << lastIndex;
+
+		XMLStreamReader reader = inputFactories.get().createXMLStreamReader(content);
+		try {
+			long[] states = new long[16];
+			states[0] = 1L;
+			int depth = 0;
+			StringBuilder stringValue = null;
+			int stringValueDepth = -1;
+
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					long parentState = states[depth];
+					long state = 0;
+					for (int i = 0; i < lastIndex; i++) {
+						long bit = 1L << i;
+						if ((parentState & bit) != 0) {
+							Step step = this.elementSteps[i];
+							if (step.descendant) {
+								state |= bit;
+							}
+							if (step.matchesElement(reader)) {
+								state |= (bit << 1);
+							}
+						}
+					}
+					if (this.attributeStep != null && this.attributeStep.descendant && (parentState & lastBit) != 0) {
+						state |= lastBit;
+					}
+					if (++depth == states.length) {
+						long[] newStates = new long[states.length * 2];
+						System.arraycopy(states, 0, newStates, 0, states.length);
+						states = newStates;
+					}
+					states[depth] = state;
+
+					if (stringValue != null || (state & lastBit) == 0) {
+						continue;
+					}
+					if (this.attributeStep != null) {
+						for (int i = 0; i < reader.getAttributeCount(); i++) {
+							if (this.attributeStep.matchesAttribute(reader, i)) {
+								result.count++;
+								if (stopAtFirst) {
+									result.value = reader.getAttributeValue(i);
+									return drain(reader, result);
+								}
+							}
+						}
+					}
+					else {
+						result.count++;
+						if (collectStringValue) {
+							stringValue = new StringBuilder();
+							stringValueDepth = depth;
+						}
+						else if (stopAtFirst) {
+							return drain(reader, result);
+						}
+					}
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT) {
+					if (stringValue != null && depth == stringValueDepth) {
+						result.value = stringValue.toString();
+						return drain(reader, result);
+					}
+					depth--;
+				}
+				else if (stringValue != null && (event == XMLStreamConstants.CHARACTERS
+						|| event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE)) {
+					stringValue.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				}
+			}
+			return result;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Read the rest of the content so that it is checked for well-formedness
+	 * even when the result is known before the end of the document.
+	 */
+	private static ScanResult drain(XMLStreamReader reader, ScanResult result) throws XMLStreamException {
+		while (reader.hasNext()) {
+			reader.next();
+		}
+		return result;
+	}
+
+	private static String nullToEmpty(String value) {
+		return (value != null) ? value : "";
+	}
+
+
+	private static class ScanResult {
+
+		private int count;
+
+		private String value;
+	}
+
+	/**
+	 * A location step with its axis, name test, and attribute predicates.
+	 */
+	private static class Step {
+
+		private final boolean descendant;
+
+		private final boolean attribute;
+
+		private final NameTest nameTest;
+
+		private final List<AttributePredicate> predicates = new ArrayList<AttributePredicate>();
+
+		public Step(boolean descendant, boolean attribute, NameTest nameTest) {
+			this.descendant = descendant;
+			this.attribute = attribute;
+			this.nameTest = nameTest;
+		}
+
+		public boolean matchesElement(XMLStreamReader reader) {
+			if (!this.nameTest.matches(reader.getNamespaceURI(), reader.getLocalName())) {
+				return false;
+			}
+			for (AttributePredicate predicate : this.predicates) {
+				if (!predicate.matches(reader)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		public boolean matchesAttribute(XMLStreamReader reader, int index) {
+			return this.nameTest.matches(reader.getAttributeNamespace(index), reader.getAttributeLocalName(index));
+		}
+	}
+
+	/**
+	 * A name test where {@code null} local name means "*".
+	 */
+	private static class NameTest {
+
+		private final String namespaceUri;
+
+		private final String localName;
+
+		public NameTest(String namespaceUri, String localName) {
+			this.namespaceUri = namespaceUri;
+			this.localName = localName;
+		}
+
+		public boolean matches(String namespaceUri, String localName) {
+			if (this.localName == null) {
+				return true;
+			}
+			return this.localName.equals(localName) && this.namespaceUri.equals(nullToEmpty(namespaceUri));
+		}
+	}
+
+	/**
+	 * A predicate of the form {@code [@name]} or {@code [@name='value']}.
+	 */
+	private static class AttributePredicate {
+
+		private final NameTest nameTest;
+
+		private final String value;
+
+		public AttributePredicate(NameTest nameTest, String value) {
+			this.nameTest = nameTest;
+			this.value = value;
+		}
+
+		public boolean matches(XMLStreamReader reader) {
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				if (this.nameTest.matches(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i))) {
+					return (this.value == null || this.value.equals(reader.getAttributeValue(i)));
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Parses a location path into steps, returning {@code null} as soon as
+	 * anything outside the supported subset is encountered.
+	 */
+	private static class PathParser {
+
+		private final String path;
+
+		private final Map<String, String> namespaces;
+
+		private int index;
+
+		public PathParser(String path, Map<String, String> namespaces) {
+			this.path = path;
+			this.namespaces = namespaces;
+		}
+
+		public List<Step> parseLocationPath() {
+			List<Step> steps = new ArrayList<Step>();
+			while (this.index < this.path.length()) {
+				boolean descendant = false;
+				if (consume('/')) {
+					descendant = consume('/');
+				}
+				else if (!steps.isEmpty()) {
+					return null;
+				}
+				if (!steps.isEmpty() && steps.get(steps.size() - 1).attribute) {
+					return null;
+				}
+				Step step = parseStep(descendant);
+				if (step == null || steps.size() == MAX_STEPS) {
+					return null;
+				}
+				steps.add(step);
+			}
+			return steps.isEmpty() ? null : steps;
+		}
+
+		private Step parseStep(boolean descendant) {
+			boolean attribute = consume('@');
+			NameTest nameTest = parseNameTest();
+			if (nameTest == null) {
+				return null;
+			}
+			Step step = new Step(descendant, attribute, nameTest);
+			while (consume('[')) {
+				if (attribute) {
+					return null;
+				}
+				AttributePredicate predicate = parsePredicate();
+				if (predicate == null) {
+					return null;
+				}
+				step.predicates.add(predicate);
+			}
+			return step;
+		}
+
+		private AttributePredicate parsePredicate() {
+			skipWhitespace();
+			if (!consume('@')) {
+				return null;
+			}
+			NameTest nameTest = parseNameTest();
+			if (nameTest == null || nameTest.localName == null) {
+				return null;
+			}
+			skipWhitespace();
+			String value = null;
+			if (consume('=')) {
+				skipWhitespace();
+				value = parseLiteral();
+				if (value == null) {
+					return null;
+				}
+				skipWhitespace();
+			}
+			return consume(']') ? new AttributePredicate(nameTest, value) : null;
+		}
+
+		private NameTest parseNameTest() {
+			if (consume('*')) {
+				return new NameTest(null, null);
+			}
+			String name = parseNCName();
+			if (name == null) {
+				return null;
+			}
+			String namespaceUri = "";
+			if (consume(':')) {
+				String localName = parseNCName();
+				if (localName == null || this.namespaces == null) {
+					return null;
+				}
+				namespaceUri = this.namespaces.get(name);
+				if (namespaceUri == null) {
+					return null;
+				}
+				name = localName;
+			}
+			if (this.index < this.path.length() && this.path.charAt(this.index) == '(') {
+				return null;
+			}
+			return new NameTest(namespaceUri, name);
+		}
+
+		private String parseNCName() {
+			int start = this.index;
+			while (this.index < this.path.length()) {
+				char c = this.path.charAt(this.index);
+				boolean valid = (this.index == start) ?
+						(Character.isLetter(c) || c == '_') :
+						(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.');
+				if (!valid) {
+					break;
+				}
+				this.index++;
+			}
+			return (this.index > start) ? this.path.substring(start, this.index) : null;
+		}
+
+		private String parseLiteral() {
+			if (this.index >= this.path.length()) {
+				return null;
+			}
+			char quote = this.path.charAt(this.index);
+			if (quote != '\'' && quote != '"') {
+				return null;
+			}
+			int end = this.path.indexOf(quote, this.index + 1);
+			if (end == -1) {
+				return null;
+			}
+			String literal = this.path.substring(this.index + 1, end);
+			this.index = end + 1;
+			return literal;
+		}
+
+		private void skipWhitespace() {
+			while (this.index < this.path.length() && Character.isWhitespace(this.path.charAt(this.index))) {
+				this.index++;
+			}
+		}
+
+		private boolean consume(char c) {
+			if (this.index < this.path.length() && this.path.charAt(this.index) == c) {
+				this.index++;
+				return true;
+			}
+			return false;
+		}
+	}
+
+}
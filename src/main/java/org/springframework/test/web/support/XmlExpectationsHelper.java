@@ -16,11 +16,8 @@
 
 package org.springframework.test.web.support;
 
-import java.io.StringReader;
 import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
 
@@ -30,9 +27,9 @@ import org.hamcrest.Matcher;
 import org.hamcrest.MatcherAssert;
 import org.springframework.test.web.AssertionErrors;
 import org.springframework.test.web.server.result.MockMvcResultMatchers;
+import org.springframework.util.Assert;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
-import org.xml.sax.InputSource;
 
 /**
  * TODO ...
@@ -40,6 +37,23 @@ import org.xml.sax.InputSource;
  * @author Rossen Stoyanchev
  */
 public class XmlExpectationsHelper {
+
+	private final XmlParserPool xmlParserPool;
+
+	/**
+	 * Create an instance that parses with {@link XmlParserPool#getDefault()}.
+	 */
+	public XmlExpectationsHelper() {
+		this(XmlParserPool.getDefault());
+	}
+
+	/**
+	 * Create an instance that parses with the given {@link XmlParserPool}.
+	 */
+	public XmlExpectationsHelper(XmlParserPool xmlParserPool) {
+		Assert.notNull(xmlParserPool, "'xmlParserPool' must not be null");
+		this.xmlParserPool = xmlParserPool;
+	}
 	
 	// TODO: XML validation
 	
@@ -48,7 +62,14 @@ public class XmlExpectationsHelper {
 	 * @see org.hamcrest.Matchers#hasXPath
 	 */
 	public void assertNode(String content, Matcher<? super Node> matcher) throws Exception {
-		Document document = parseXmlString(content);
+		assertNode(parseXmlString(content), matcher);
+	}
+
+	/**
+	 * Apply a {@link Matcher} to an already parsed {@link Document}.
+	 * @see org.hamcrest.Matchers#hasXPath
+	 */
+	public void assertNode(Document document, Matcher<? super Node> matcher) throws Exception {
 		MatcherAssert.assertThat("Contents", document, matcher);
 	}
 
@@ -56,12 +77,7 @@ public class XmlExpectationsHelper {
 	 * TODO
 	 */
 	protected Document parseXmlString(String xml) throws Exception  {
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		factory.setNamespaceAware(true);
-		DocumentBuilder documentBuilder = factory.newDocumentBuilder();
-		InputSource inputSource = new InputSource(new StringReader(xml));
-		Document document = documentBuilder.parse(inputSource);
-		return document;
+		return this.xmlParserPool.parseShared(xml);
 	}
 	
 	/**
@@ -69,7 +85,14 @@ public class XmlExpectationsHelper {
 	 * @see <a href="http://code.google.com/p/xml-matchers/">xml-matchers</a> 
 	 */
 	public void assertSource(String content, Matcher<? super Source> matcher) throws Exception {
-		Document document = parseXmlString(content);
+		assertSource(parseXmlString(content), matcher);
+	}
+
+	/**
+	 * Wrap an already parsed {@link Document} as {@link DOMSource} and apply
+	 * a {@link Matcher}.
+	 */
+	public void assertSource(Document document, Matcher<? super Source> matcher) throws Exception {
 		MatcherAssert.assertThat("Contents", new DOMSource(document), matcher);
 	}
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.support;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+
+import org.springframework.util.Assert;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Provides each thread with its own {@link DocumentBuilder} and
+ * {@link XPathFactory} so that the JAXP factory lookup, which goes through
+ * the service loader mechanism, is performed once per thread rather than for
+ * every parsed document and compiled XPath expression.
+ *
+ * <p>JAXP factories and parsers are not thread-safe. Instances of this class
+ * are, since no parser or factory is ever shared between threads, which makes
+ * it safe to use under parallel test execution.
+ *
+ * <p>Parsers are namespace-aware by default. Additional
+ * {@link DocumentBuilderFactory#setFeature(String, boolean) parser features}
+ * can be passed to the constructor. Example:
+ *
+ * <pre>
+ * Map&lt;String, Boolean&gt; features = new HashMap&lt;String, Boolean&gt;();
+ * features.put("http://apache.org/xml/features/dom/defer-node-expansion", false);
+ * XmlParserPool.setDefault(new XmlParserPool(true, features));
+ * </pre>
+ *
+ * @author Rossen Stoyanchev
+ */
+public class XmlParserPool {
+
+	private static volatile XmlParserPool defaultInstance = new XmlParserPool(true, null);
+
+	private final boolean namespaceAware;
+
+	private final Map<String, Boolean> features;
+
+	private final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<DocumentBuilder>();
+
+	private final ThreadLocal<SoftReference<ParsedContent>> lastParsedContent =
+			new ThreadLocal<SoftReference<ParsedContent>>();
+
+	private final ThreadLocal<XPathFactory> xpathFactories = new ThreadLocal<XPathFactory>() {
+		@Override
+		protected XPathFactory initialValue() {
+			return XPathFactory.newInstance();
+		}
+	};
+
+	/**
+	 * Create a pool with the given parser configuration.
+	 * @param namespaceAware whether parsers should be namespace-aware
+	 * @param features parser features to set, or {@code null}
+	 */
+	public XmlParserPool(boolean namespaceAware, Map<String, Boolean> features) {
+		this.namespaceAware = namespaceAware;
+		this.features = (features != null) ?
+				Collections.unmodifiableMap(new LinkedHashMap<String, Boolean>(features)) :
+				Collections.<String, Boolean>emptyMap();
+	}
+
+	/**
+	 * Return the pool used by default to parse response content and compile
+	 * XPath expressions. Unless replaced through {@link #setDefault}, it
+	 * creates namespace-aware parsers with no additional features.
+	 */
+	public static XmlParserPool getDefault() {
+		return defaultInstance;
+	}
+
+	/**
+	 * Replace the pool used by default, e.g. to set parser features.
+	 */
+	public static void setDefault(XmlParserPool xmlParserPool) {
+		Assert.notNull(xmlParserPool, "'xmlParserPool' must not be null");
+		defaultInstance = xmlParserPool;
+	}
+
+	/**
+	 * Whether parsers are namespace-aware.
+	 */
+	public boolean isNamespaceAware() {
+		return this.namespaceAware;
+	}
+
+	/**
+	 * Return the parser features set on parsers.
+	 */
+	public Map<String, Boolean> getFeatures() {
+		return this.features;
+	}
+
+	/**
+	 * Return the {@link DocumentBuilder} of the current thread, reset to its
+	 * original configuration. The DocumentBuilder must not be passed to
+	 * other threads.
+	 */
+	public DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+		DocumentBuilder documentBuilder = this.documentBuilders.get();
+		if (documentBuilder == null) {
+			documentBuilder = createDocumentBuilderFactory().newDocumentBuilder();
+			this.documentBuilders.set(documentBuilder);
+		}
+		else {
+			documentBuilder.reset();
+		}
+		return documentBuilder;
+	}
+
+	/**
+	 * Create the factory for the DocumentBuilder of a thread.
+	 */
+	protected DocumentBuilderFactory createDocumentBuilderFactory() throws ParserConfigurationException {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(this.namespaceAware);
+		for (Map.Entry<String, Boolean> entry : this.features.entrySet()) {
+			factory.setFeature(entry.getKey(), entry.getValue());
+		}
+		return factory;
+	}
+
+	/**
+	 * Parse the given XML content with the DocumentBuilder of the current thread.
+	 */
+	public Document parse(String content) throws ParserConfigurationException, SAXException, IOException {
+		return getDocumentBuilder().parse(new InputSource(new StringReader(content)));
+	}
+
+	/**
+	 * Parse the given XML content, or return the Document parsed from the
+	 * same String instance by the previous call to this method on the
+	 * current thread. This lets all expectations applied to the content of
+	 * one response share a single parse. The returned Document must not be
+	 * modified. It is softly referenced and may be parsed again when memory
+	 * is low.
+	 */
+	public Document parseShared(String content) throws ParserConfigurationException, SAXException, IOException {
+		SoftReference<ParsedContent> reference = this.lastParsedContent.get();
+		ParsedContent parsed = (reference != null) ? reference.get() : null;
+		if (parsed == null || parsed.content != content) {
+			parsed = new ParsedContent(content, parse(content));
+			this.lastParsedContent.set(new SoftReference<ParsedContent>(parsed));
+		}
+		return parsed.document;
+	}
+
+	/**
+	 * Create an {@link XPath} with the {@link XPathFactory} of the current
+	 * thread. The XPath, and expressions compiled with it, must not be passed
+	 * to other threads.
+	 */
+	public XPath newXPath() {
+		return this.xpathFactories.get().newXPath();
+	}
+
+
+	private static class ParsedContent {
+
+		private final String content;
+
+		private final Document document;
+
+		public ParsedContent(String content, Document document) {
+			this.content = content;
+			this.document = document;
+		}
+	}
+
+}
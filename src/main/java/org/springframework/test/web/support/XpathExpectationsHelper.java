@@ -17,28 +17,26 @@
 package org.springframework.test.web.support;
 
 import static org.springframework.test.web.AssertionErrors.assertEquals;
+import static org.springframework.test.web.AssertionErrors.assertTrue;
 
 import java.io.StringReader;
 import java.util.Collections;
 import java.util.Map;
 
 import javax.xml.namespace.QName;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.hamcrest.Matcher;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.xml.SimpleNamespaceContext;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
 /**
  * 
@@ -48,14 +46,64 @@ import org.xml.sax.InputSource;
  */
 public class XpathExpectationsHelper {
 
+	/**
+	 * The default content length, in characters, at or above which expressions
+	 * are evaluated by streaming rather than against a parsed DOM.
+	 * See {@link #isStreamable(String)}.
+	 */
+	public static final int DEFAULT_STREAMING_THRESHOLD = 1024 * 1024;
+
+	private static final boolean staxPresent =
+			ClassUtils.isPresent("javax.xml.stream.XMLStreamReader", XpathExpectationsHelper.class.getClassLoader());
+
 	private final String expression;
-	
-	private final XPathExpression xpathExpression;
+
+	private final Map<String, String> namespaces;
+
+	/** Compiled expressions are not thread-safe, keep one per thread */
+	private final ThreadLocal<XPathExpression> xpathExpressions = new ThreadLocal<XPathExpression>();
+
+	private final StreamingXpathExpression streamingExpression;
+
+	private int streamingThreshold = DEFAULT_STREAMING_THRESHOLD;
 
 	public XpathExpectationsHelper(String expression, Map<String, String> namespaces, Object... args)
 			throws XPathExpressionException {
 		this.expression = String.format(expression, args);
-		this.xpathExpression = compileXpathExpression(this.expression, namespaces);
+		this.namespaces = namespaces;
+		this.xpathExpressions.set(compileXpathExpression(this.expression, namespaces));
+		this.streamingExpression = staxPresent ? StreamingXpathExpression.compile(this.expression, namespaces) : null;
+	}
+
+	/**
+	 * Set the content length, in characters, at or above which
+	 * {@link #isStreamable(String)} returns {@code true}. The default is
+	 * {@link #DEFAULT_STREAMING_THRESHOLD}.
+	 */
+	public void setStreamingThreshold(int streamingThreshold) {
+		this.streamingThreshold = streamingThreshold;
+	}
+
+	/**
+	 * Whether the expression can be evaluated in a single StAX pass over the
+	 * content without building a DOM. That is the case for location paths with
+	 * child and descendant steps, attribute predicates such as
+	 * {@code [@id='1']}, and {@code count()} or {@code string()} of such paths.
+	 * Only expectations on a node count, string, number, boolean, or the
+	 * existence of a node can be streamed.
+	 */
+	public boolean isStreamingSupported() {
+		return (this.streamingExpression != null && getXmlParserPool().isNamespaceAware());
+	}
+
+	/**
+	 * Whether the given content is large enough, and the expression simple
+	 * enough, for the expectation to be evaluated by streaming rather than
+	 * against a parsed DOM. The methods accepting a String stream only in that
+	 * case and otherwise parse the content with {@link #parseXmlString(String)}.
+	 */
+	public boolean isStreamable(String content) {
+		return (isStreamingSupported() && content.length() >= this.streamingThreshold);
 	}
 
 	/**
@@ -69,7 +117,7 @@ public class XpathExpectationsHelper {
 			throws XPathExpressionException {
 		SimpleNamespaceContext namespaceContext = new SimpleNamespaceContext();
 		namespaceContext.setBindings((namespaces != null) ? namespaces : Collections.<String, String> emptyMap());
-		XPath xpath = XPathFactory.newInstance().newXPath();
+		XPath xpath = getXmlParserPool().newXPath();
 		xpath.setNamespaceContext(namespaceContext);
 		return xpath.compile(expression);
 	}
@@ -79,7 +127,14 @@ public class XpathExpectationsHelper {
 	 * assert it with the given {@code Matcher<Node>}.
 	 */
 	public void assertNode(String content, final Matcher<? super Node> matcher) throws Exception {
-		Document document = parseXmlString(content);
+		assertNode(parseXmlString(content), matcher);
+	}
+
+	/**
+	 * Evaluate the XPath expression against an already parsed {@link Document}
+	 * as a {@link Node}, and assert it with the given {@code Matcher<Node>}.
+	 */
+	public void assertNode(Document document, final Matcher<? super Node> matcher) throws Exception {
 		Node node = evaluateXpath(document, XPathConstants.NODE, Node.class);
 		MatcherAssert.assertThat("Xpath: " + XpathExpectationsHelper.this.expression, node, matcher);
 	}
@@ -91,12 +146,15 @@ public class XpathExpectationsHelper {
 	 * @throws Exception
 	 */
 	protected Document parseXmlString(String xml) throws Exception  {
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		factory.setNamespaceAware(true);
-		DocumentBuilder documentBuilder = factory.newDocumentBuilder();
-		InputSource inputSource = new InputSource(new StringReader(xml));
-		Document document = documentBuilder.parse(inputSource);
-		return document;
+		return getXmlParserPool().parseShared(xml);
+	}
+
+	/**
+	 * Return the pool to obtain parsers and XPath instances from.
+	 * By default this is {@link XmlParserPool#getDefault()}.
+	 */
+	protected XmlParserPool getXmlParserPool() {
+		return XmlParserPool.getDefault();
 	}
 	
 	/**
@@ -106,7 +164,16 @@ public class XpathExpectationsHelper {
 	@SuppressWarnings("unchecked")
 	protected <T> T evaluateXpath(Document document, QName evaluationType, Class<T> expectedClass)
 			throws XPathExpressionException {
-		return (T) this.xpathExpression.evaluate(document, evaluationType);
+		return (T) getXpathExpression().evaluate(document, evaluationType);
+	}
+
+	private XPathExpression getXpathExpression() throws XPathExpressionException {
+		XPathExpression xpathExpression = this.xpathExpressions.get();
+		if (xpathExpression == null) {
+			xpathExpression = compileXpathExpression(this.expression, this.namespaces);
+			this.xpathExpressions.set(xpathExpression);
+		}
+		return xpathExpression;
 	}
 	
 	/**
@@ -114,14 +181,42 @@ public class XpathExpectationsHelper {
 	 * @throws Exception if content parsing or XPath expression evaluation fails
 	 */
 	public void exists(String content) throws Exception {
-		assertNode(content, Matchers.notNullValue());
+		if (isStreamable(content) && this.streamingExpression.isLocationPath()) {
+			boolean exists = this.streamingExpression.evaluateExists(new StringReader(content));
+			assertTrue("No node for Xpath: " + this.expression, exists);
+		}
+		else {
+			assertNode(content, Matchers.notNullValue());
+		}
+	}
+
+	/**
+	 * Assert that the XPath expression selects a node in the already parsed {@link Document}.
+	 * @throws Exception if XPath expression evaluation fails
+	 */
+	public void exists(Document document) throws Exception {
+		assertNode(document, Matchers.notNullValue());
 	}
 
 	/**
 	 * TODO
 	 */
 	public void doesNotExist(String content) throws Exception {
-		assertNode(content, Matchers.nullValue());
+		if (isStreamable(content) && this.streamingExpression.isLocationPath()) {
+			boolean exists = this.streamingExpression.evaluateExists(new StringReader(content));
+			assertTrue("Unexpected node for Xpath: " + this.expression, !exists);
+		}
+		else {
+			assertNode(content, Matchers.nullValue());
+		}
+	}
+
+	/**
+	 * Assert that the XPath expression selects no node in the already parsed {@link Document}.
+	 * @throws Exception if XPath expression evaluation fails
+	 */
+	public void doesNotExist(Document document) throws Exception {
+		assertNode(document, Matchers.nullValue());
 	}
 	
 	/**
@@ -129,7 +224,20 @@ public class XpathExpectationsHelper {
 	 * @throws Exception if content parsing or XPath expression evaluation fails
 	 */
 	public void assertNodeCount(String content, Matcher<Integer> matcher) throws Exception {
-		Document document = parseXmlString(content);
+		if (isStreamable(content) && this.streamingExpression.isLocationPath()) {
+			int count = this.streamingExpression.evaluateCount(new StringReader(content));
+			MatcherAssert.assertThat("nodeCount Xpath: " + this.expression, count, matcher);
+		}
+		else {
+			assertNodeCount(parseXmlString(content), matcher);
+		}
+	}
+
+	/**
+	 * Assert the number of nodes the XPath expression selects in the already parsed {@link Document}.
+	 * @throws Exception if XPath expression evaluation fails
+	 */
+	public void assertNodeCount(Document document, Matcher<Integer> matcher) throws Exception {
 		NodeList nodeList = evaluateXpath(document, XPathConstants.NODESET, NodeList.class);
 		String reason = "nodeCount Xpath: " + XpathExpectationsHelper.this.expression;
 		MatcherAssert.assertThat(reason, nodeList.getLength(), matcher);
@@ -148,7 +256,20 @@ public class XpathExpectationsHelper {
 	 * @throws Exception if content parsing or XPath expression evaluation fails
 	 */
 	public void assertString(String content, Matcher<? super String> matcher) throws Exception {
-		Document document = parseXmlString(content);
+		if (isStreamable(content)) {
+			String result = this.streamingExpression.evaluateString(new StringReader(content));
+			MatcherAssert.assertThat("Xpath: " + this.expression, result, matcher);
+		}
+		else {
+			assertString(parseXmlString(content), matcher);
+		}
+	}
+
+	/**
+	 * Evaluate the XPath expression as a String against the already parsed {@link Document} and assert it.
+	 * @throws Exception if XPath expression evaluation fails
+	 */
+	public void assertString(Document document, Matcher<? super String> matcher) throws Exception {
 		String result = evaluateXpath(document,  XPathConstants.STRING, String.class);
 		MatcherAssert.assertThat("Xpath: " + XpathExpectationsHelper.this.expression, result, matcher);
 	}
@@ -166,7 +287,20 @@ public class XpathExpectationsHelper {
 	 * @throws Exception if content parsing or XPath expression evaluation fails
 	 */
 	public void assertNumber(String content, Matcher<? super Double> matcher) throws Exception {
-		Document document = parseXmlString(content);
+		if (isStreamable(content)) {
+			Double result = this.streamingExpression.evaluateNumber(new StringReader(content));
+			MatcherAssert.assertThat("Xpath: " + this.expression, result, matcher);
+		}
+		else {
+			assertNumber(parseXmlString(content), matcher);
+		}
+	}
+
+	/**
+	 * Evaluate the XPath expression as a Double against the already parsed {@link Document} and assert it.
+	 * @throws Exception if XPath expression evaluation fails
+	 */
+	public void assertNumber(Document document, Matcher<? super Double> matcher) throws Exception {
 		Double result = evaluateXpath(document, XPathConstants.NUMBER, Double.class);
 		MatcherAssert.assertThat("Xpath: " + XpathExpectationsHelper.this.expression, result, matcher);
 	}
@@ -184,7 +318,20 @@ public class XpathExpectationsHelper {
 	 * @throws Exception if content parsing or XPath expression evaluation fails
 	 */
 	public void assertBoolean(String content, Boolean expectedValue) throws Exception {
-		Document document = parseXmlString(content);
+		if (isStreamable(content)) {
+			String result = this.streamingExpression.evaluateString(new StringReader(content));
+			assertEquals("Xpath:", expectedValue, Boolean.parseBoolean(result));
+		}
+		else {
+			assertBoolean(parseXmlString(content), expectedValue);
+		}
+	}
+
+	/**
+	 * Evaluate the XPath expression as a Boolean against the already parsed {@link Document} and assert it.
+	 * @throws Exception if XPath expression evaluation fails
+	 */
+	public void assertBoolean(Document document, Boolean expectedValue) throws Exception {
 		String result = evaluateXpath(document, XPathConstants.STRING, String.class);
 		assertEquals("Xpath:", expectedValue, Boolean.parseBoolean(result));
 	}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StartupReport}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class StartupReportTests {
+
+	private StartupReport report;
+
+	@Before
+	public void setup() {
+		Map<String, Long> phaseTimes = new LinkedHashMap<String, Long>();
+		phaseTimes.put("initServletContext", 1000L);
+		phaseTimes.put("initWebApplicationContext", 5000000L);
+
+		Map<String, Long> beanTimes = new LinkedHashMap<String, Long>();
+		beanTimes.put("fast", 10L);
+		beanTimes.put("slow", 3000L);
+		beanTimes.put("\"quoted\"", 200L);
+
+		this.report = new StartupReport(phaseTimes, beanTimes);
+	}
+
+	@Test
+	public void times() {
+		assertEquals(5001000L, this.report.getTotalTime(TimeUnit.NANOSECONDS));
+		assertEquals(5L, this.report.getPhaseTime("initWebApplicationContext", TimeUnit.MILLISECONDS));
+		assertEquals(0L, this.report.getPhaseTime("unknown", TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void slowestBeans() {
+		Map<String, Long> slowest = this.report.getSlowestBeans(2);
+		assertEquals(2, slowest.size());
+		assertEquals("slow", new ArrayList<String>(slowest.keySet()).get(0));
+		assertEquals("\"quoted\"", new ArrayList<String>(slowest.keySet()).get(1));
+	}
+
+	@Test
+	public void toJson() {
+		assertEquals("{\"totalNanos\":5001000," +
+				"\"phases\":{\"initServletContext\":1000,\"initWebApplicationContext\":5000000}," +
+				"\"beans\":{\"slow\":3000,\"\\\"quoted\\\"\":200,\"fast\":10}}", this.report.toJson());
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneSetup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Tests for the {@link MvcResult} created by {@link TestDispatcherServlet}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class TestDispatcherServletTests {
+
+	private MvcResult mvcResult;
+
+	@Before
+	public void setup() throws Exception {
+		MockMvc mockMvc = standaloneSetup(new SimpleController()).build();
+		this.mvcResult = mockMvc.perform(get("/text")).andReturn();
+	}
+
+	@Test
+	public void responseContentIsDecodedOnce() throws Exception {
+		String content = MvcResultContent.getContentAsString(this.mvcResult);
+		assertEquals("caf\u00e9", content);
+		assertSame(content, MvcResultContent.getContentAsString(this.mvcResult));
+	}
+
+	@Test
+	public void responseContentIsCopiedOnce() throws Exception {
+		byte[] content = MvcResultContent.getContentAsByteArray(this.mvcResult);
+		assertSame(content, MvcResultContent.getContentAsByteArray(this.mvcResult));
+	}
+
+	@Test
+	public void responseContentPerEncoding() throws Exception {
+		String content = MvcResultContent.getContentAsString(this.mvcResult);
+		String encoding = this.mvcResult.getResponse().getCharacterEncoding();
+
+		this.mvcResult.getResponse().setCharacterEncoding("UTF-16");
+		String decoded = MvcResultContent.getContentAsString(this.mvcResult);
+		assertEquals(new String(MvcResultContent.getContentAsByteArray(this.mvcResult), "UTF-16"), decoded);
+
+		this.mvcResult.getResponse().setCharacterEncoding(encoding);
+		assertSame(content, MvcResultContent.getContentAsString(this.mvcResult));
+	}
+
+	@Test
+	public void responseContentIsParsedAsJsonOnce() throws Exception {
+		MockMvc mockMvc = standaloneSetup(new SimpleController()).build();
+		MvcResult result = mockMvc.perform(get("/json")).andReturn();
+
+		Object json = MvcResultContent.getContentAsJson(result);
+		assertEquals("Joe", ((Map<?, ?>) json).get("name"));
+		assertSame(json, MvcResultContent.getContentAsJson(result));
+	}
+
+	@Test
+	public void recycledResult() throws Exception {
+		MockMvc mockMvc = standaloneSetup(new SimpleController()).build().recycling();
+
+		ResultActions actions = mockMvc.perform(get("/text"));
+		MvcResult result = actions.andReturn();
+		assertEquals("caf\u00e9", MvcResultContent.getContentAsString(result));
+
+		assertSame(actions, mockMvc.perform(get("/json")));
+		assertSame(result, actions.andReturn());
+		assertEquals("/json", result.getRequest().getRequestURI());
+		assertEquals("Joe", ((Map<?, ?>) MvcResultContent.getContentAsJson(result)).get("name"));
+		assertNull(result.getResolvedException());
+	}
+
+	@Test
+	public void recycledResultPerThread() throws Exception {
+		final MockMvc mockMvc = standaloneSetup(new SimpleController()).build().recycling();
+		MvcResult result = mockMvc.perform(get("/text")).andReturn();
+
+		FutureTask<MvcResult> task = new FutureTask<MvcResult>(new Callable<MvcResult>() {
+			public MvcResult call() throws Exception {
+				return mockMvc.perform(get("/json")).andReturn();
+			}
+		});
+		new Thread(task).start();
+
+		assertNotSame(result, task.get());
+		assertEquals("/text", result.getRequest().getRequestURI());
+	}
+
+	@Test
+	public void recycledResultNewResponse() throws Exception {
+		MockMvc mockMvc = standaloneSetup(new SimpleController()).build().recycling();
+
+		MockHttpServletResponse response = mockMvc.perform(get("/redirect")).andReturn().getResponse();
+		assertEquals("/text", response.getRedirectedUrl());
+
+		MockHttpServletResponse next = mockMvc.perform(get("/writer")).andReturn().getResponse();
+		assertNotSame(response, next);
+		assertNull(next.getRedirectedUrl());
+		assertEquals("UTF-8", next.getCharacterEncoding());
+		assertEquals("caf\u00e9", next.getContentAsString());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void recyclingRejectsPerformAsync() throws Exception {
+		standaloneSetup(new SimpleController()).build().recycling().performAsync(get("/text"));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void recyclingRejectsPerformAll() throws Exception {
+		standaloneSetup(new SimpleController()).build().recycling().performAll(Collections.singletonList(get("/text")));
+	}
+
+	@Controller
+	@SuppressWarnings("unused")
+	private static class SimpleController {
+
+		@RequestMapping("/text")
+		@ResponseBody
+		public String text() {
+			return "caf\u00e9";
+		}
+
+		@RequestMapping("/json")
+		@ResponseBody
+		public String json() {
+			return "{\"name\": \"Joe\"}";
+		}
+
+		@RequestMapping("/writer")
+		public void writer(HttpServletResponse response) throws IOException {
+			response.setCharacterEncoding("UTF-8");
+			response.getWriter().write("caf\u00e9");
+		}
+
+		@RequestMapping("/redirect")
+		public String redirect() {
+			return "redirect:/text";
+		}
+	}
+
+}
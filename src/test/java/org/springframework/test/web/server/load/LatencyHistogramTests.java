@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author Rossen Stoyanchev
+ */
+public class LatencyHistogramTests {
+
+	@Test
+	public void empty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getTotalCount());
+		assertEquals(0, histogram.getMinValue());
+		assertEquals(0, histogram.getP99());
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 20; i++) {
+			histogram.recordValue(i);
+		}
+		assertEquals(20, histogram.getTotalCount());
+		assertEquals(1, histogram.getMinValue());
+		assertEquals(20, histogram.getMaxValue());
+		assertEquals(10, histogram.getP50());
+		assertEquals(20, histogram.getP99());
+	}
+
+	@Test
+	public void percentilesWithinRelativeError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 100000; i++) {
+			histogram.recordValue(i * 1000);
+		}
+		assertWithinError(50000000, histogram.getP50());
+		assertWithinError(99000000, histogram.getP99());
+		assertWithinError(99900000, histogram.getP999());
+		assertEquals(100000000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void bucketBoundaries() {
+		for (long value = 0; value < 100000; value += 7) {
+			int index = LatencyHistogram.getBucketIndex(value);
+			assertTrue(value <= LatencyHistogram.getHighestValueInBucket(index));
+			assertTrue(index == 0 || value > LatencyHistogram.getHighestValueInBucket(index - 1));
+		}
+		LatencyHistogram.getBucketIndex(Long.MAX_VALUE);
+	}
+
+	private static void assertWithinError(long expected, long actual) {
+		assertTrue("Expected ~" + expected + " but was " + actual, Math.abs(expected - actual) <= expected * 0.035);
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneSetup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * @author Rossen Stoyanchev
+ */
+public class LoadGeneratorTests {
+
+	@Test
+	public void run() throws Exception {
+		MockMvc mockMvc = standaloneSetup(new SimpleController()).build();
+
+		LoadResult result = mockMvc.load(get("/ping"))
+				.atRate(200)
+				.forDuration(250, TimeUnit.MILLISECONDS)
+				.run();
+
+		assertEquals(50, result.getCompletedCount());
+		assertEquals(0, result.getErrorCount());
+		assertTrue(result.getThroughput() > 0);
+
+		Map<String, LatencyHistogram> histograms = result.getHandlerHistograms();
+		assertEquals(1, histograms.size());
+		assertEquals(50, histograms.get(SimpleController.class.getName() + "#ping").getTotalCount());
+	}
+
+	@Test
+	public void errorsAreCounted() throws Exception {
+		MockMvc mockMvc = standaloneSetup(new SimpleController()).build();
+
+		LoadResult result = mockMvc.load(get("/fail"))
+				.atRate(100)
+				.forDuration(100, TimeUnit.MILLISECONDS)
+				.run();
+
+		assertEquals(0, result.getCompletedCount());
+		assertEquals(10, result.getErrorCount());
+	}
+
+
+	@Controller
+	@SuppressWarnings("unused")
+	private static class SimpleController {
+
+		@RequestMapping("/ping")
+		@ResponseBody
+		public String ping() {
+			return "pong";
+		}
+
+		@RequestMapping("/fail")
+		public String fail() {
+			throw new IllegalStateException("Expected failure");
+		}
+	}
+
+}
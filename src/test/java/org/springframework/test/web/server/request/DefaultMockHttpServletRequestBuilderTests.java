@@ -1,7 +1,10 @@
 package org.springframework.test.web.server.request;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.net.URI;
 import java.security.Principal;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -9,6 +12,7 @@ import java.util.Map;
 import javax.servlet.ServletContext;
 import javax.servlet.http.Cookie;
 
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -89,6 +93,47 @@ public class DefaultMockHttpServletRequestBuilderTests {
         assertArrayEquals(body, result);
     }
 
+    @Test
+    public void bodyFromStream() throws Exception {
+        byte[] body = "Hello World".getBytes("UTF-8");
+        builder.body(new ByteArrayInputStream(body));
+
+        MockHttpServletRequest request = builder.buildRequest(servletContext);
+
+        assertEquals(-1, request.getContentLength());
+        byte[] result = FileCopyUtils.copyToByteArray(request.getInputStream());
+        assertArrayEquals(body, result);
+    }
+
+    @Test
+    public void bodyFromFile() throws Exception {
+        byte[] body = new byte[StreamingMockHttpServletRequest.MAPPED_BODY_THRESHOLD + 1];
+        Arrays.fill(body, (byte) 'a');
+        File file = File.createTempFile("body", ".txt");
+        try {
+            FileCopyUtils.copy(body, file);
+            builder.body(file);
+
+            MockHttpServletRequest request = builder.buildRequest(servletContext);
+
+            assertEquals(body.length, request.getContentLength());
+            byte[] result = FileCopyUtils.copyToByteArray(request.getInputStream());
+            assertArrayEquals(body, result);
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void bodyFromResource() throws Exception {
+        builder.body(new ByteArrayResource("Hello World".getBytes("UTF-8"))).characterEncoding("UTF-8");
+
+        MockHttpServletRequest request = builder.buildRequest(servletContext);
+
+        assertEquals("Hello World", request.getReader().readLine());
+    }
+
     @Test
     public void header() throws Exception {
         builder.header("foo", "bar", "baz");
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.net.URI;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link MockMvcRequestBuilders}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class MockMvcRequestBuildersTests {
+
+	@Test
+	public void expandUrlWithoutVariables() {
+		URI uri = MockMvcRequestBuilders.expandUrl("/hotels list", new Object[0]);
+
+		assertEquals("/hotels%20list", uri.toString());
+		assertSame(uri, MockMvcRequestBuilders.expandUrl("/hotels list", new Object[0]));
+	}
+
+	@Test
+	public void expandUrlWithVariables() {
+		assertEquals("/hotels/1/bookings/2",
+				MockMvcRequestBuilders.expandUrl("/hotels/{hotel}/bookings/{booking}", new Object[] {1, 2}).toString());
+		assertEquals("/hotels/3/bookings/a%20b",
+				MockMvcRequestBuilders.expandUrl("/hotels/{hotel}/bookings/{booking}", new Object[] {3, "a b"}).toString());
+	}
+
+}
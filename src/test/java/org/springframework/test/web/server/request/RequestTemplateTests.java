@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.request;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Locale;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.Cookie;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Tests for {@link RequestTemplate}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class RequestTemplateTests {
+
+	private final ServletContext servletContext = new MockServletContext();
+
+	@Test
+	public void buildRequest() throws Exception {
+		DefaultRequestBuilder builder = MockMvcRequestBuilders.post("/person")
+				.param("name", "Joe", "Joseph")
+				.header("X-Trace", "1", "2")
+				.contentType(MediaType.APPLICATION_JSON)
+				.body("{}".getBytes("UTF-8"))
+				.cookie(new Cookie("session", "abc"))
+				.locale(Locale.FRENCH)
+				.requestAttr("foo", "bar")
+				.sessionAttr("user", "joe")
+				.servletPath("/app");
+
+		RequestTemplate template = builder.toTemplate();
+		builder.param("name", "Jim");
+
+		MockHttpServletRequest request = template.buildRequest(this.servletContext);
+		assertEquals("POST", request.getMethod());
+		assertEquals("/person", request.getRequestURI());
+		assertArrayEquals(new String[] {"Joe", "Joseph"}, request.getParameterValues("name"));
+		assertEquals(2, Collections.list(request.getHeaders("X-Trace")).size());
+		assertEquals("application/json", request.getContentType());
+		assertArrayEquals("{}".getBytes("UTF-8"), FileCopyUtils.copyToByteArray(request.getInputStream()));
+		assertEquals("abc", request.getCookies()[0].getValue());
+		assertEquals(Locale.FRENCH, request.getLocale());
+		assertEquals("bar", request.getAttribute("foo"));
+		assertEquals("joe", request.getSession().getAttribute("user"));
+		assertEquals("/app", request.getServletPath());
+	}
+
+	@Test
+	public void requestsIndependent() {
+		RequestTemplate template = MockMvcRequestBuilders.get("/person")
+				.param("name", "Joe").cookie(new Cookie("session", "abc")).toTemplate();
+
+		MockHttpServletRequest request1 = template.buildRequest(this.servletContext);
+		MockHttpServletRequest request2 = template.buildRequest(this.servletContext);
+
+		assertNotSame(request1.getParameterValues("name"), request2.getParameterValues("name"));
+		request1.getCookies()[0].setValue("xyz");
+		assertEquals("abc", request2.getCookies()[0].getValue());
+	}
+
+	@Test
+	public void overrides() throws Exception {
+		RequestTemplate template = MockMvcRequestBuilders.put("/person/{id}", 1).body(new byte[] {1}).toTemplate();
+
+		MockHttpServletRequest request = template.withUri("/person/{id}", 2).buildRequest(this.servletContext);
+		assertEquals("/person/2", request.getRequestURI());
+		assertArrayEquals(new byte[] {1}, FileCopyUtils.copyToByteArray(request.getInputStream()));
+
+		request = template.withBody(new byte[] {2}).buildRequest(this.servletContext);
+		assertEquals("/person/1", request.getRequestURI());
+		assertArrayEquals(new byte[] {2}, FileCopyUtils.copyToByteArray(request.getInputStream()));
+	}
+
+	@Test
+	public void multipart() throws Exception {
+		RequestTemplate template = MockMvcRequestBuilders.fileUpload("/upload").file("file", new byte[] {1}).toTemplate();
+
+		MockHttpServletRequest request = template.buildRequest(this.servletContext);
+		assertArrayEquals(new byte[] {1}, ((MockMultipartHttpServletRequest) request).getFile("file").getBytes());
+		assertNull(request.getParameter("name"));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void subclassNotSupported() throws Exception {
+		DefaultRequestBuilder builder = new DefaultRequestBuilder(new URI("/person"), HttpMethod.GET) {
+			@Override
+			protected MockHttpServletRequest createServletRequest(ServletContext servletContext) {
+				return new MockHttpServletRequest(servletContext);
+			}
+		};
+		builder.toTemplate();
+	}
+
+}
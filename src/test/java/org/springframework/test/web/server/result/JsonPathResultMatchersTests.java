@@ -46,6 +46,16 @@ public class JsonPathResultMatchersTests {
 		new JsonPathResultMatchers("$.foo").value(Matchers.equalTo("bogus")).match(getStubMvcResult());
 	}
 
+	@Test
+	public void valueArrayElement() throws Exception {
+		new JsonPathResultMatchers("$.qux[1]").value("baz2").match(getStubMvcResult());
+	}
+
+	@Test
+	public void valueWildcard() throws Exception {
+		new JsonPathResultMatchers("$.qux[*]").value(Matchers.contains("baz1", "baz2")).match(getStubMvcResult());
+	}
+
 	@Test
 	public void exists() throws Exception {
 		new JsonPathResultMatchers("$.foo").exists().match(getStubMvcResult());
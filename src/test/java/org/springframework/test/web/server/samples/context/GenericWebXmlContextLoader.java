@@ -28,6 +28,8 @@ import org.springframework.mock.web.MockRequestDispatcher;
 import org.springframework.mock.web.MockServletContext;
 import org.springframework.test.context.MergedContextConfiguration;
 import org.springframework.test.context.support.AbstractContextLoader;
+import org.springframework.test.web.server.setup.CachingDocumentLoader;
+import org.springframework.test.web.server.setup.CachingResourceLoader;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.GenericWebApplicationContext;
 
@@ -37,7 +39,7 @@ public class GenericWebXmlContextLoader extends AbstractContextLoader {
 	
 	public GenericWebXmlContextLoader(String warRootDir, boolean isClasspathRelative) {
 		ResourceLoader resourceLoader = isClasspathRelative ? new DefaultResourceLoader() : new FileSystemResourceLoader();
-		this.servletContext = initServletContext(warRootDir, resourceLoader);
+		this.servletContext = initServletContext(warRootDir, new CachingResourceLoader(resourceLoader));
 	}
 
 	private MockServletContext initServletContext(String warRootDir, ResourceLoader resourceLoader) {
@@ -53,7 +55,7 @@ public class GenericWebXmlContextLoader extends AbstractContextLoader {
 		GenericWebApplicationContext context = new GenericWebApplicationContext();
 		context.getEnvironment().setActiveProfiles(mergedConfig.getActiveProfiles());
 		prepareContext(context);
-		new XmlBeanDefinitionReader(context).loadBeanDefinitions(mergedConfig.getLocations());
+		createBeanDefinitionReader(context).loadBeanDefinitions(mergedConfig.getLocations());
 		AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
 		context.refresh();
 		context.registerShutdownHook();
@@ -63,13 +65,19 @@ public class GenericWebXmlContextLoader extends AbstractContextLoader {
 	public ApplicationContext loadContext(String... locations) throws Exception {
 		GenericWebApplicationContext context = new GenericWebApplicationContext();
 		prepareContext(context);
-		new XmlBeanDefinitionReader(context).loadBeanDefinitions(locations);
+		createBeanDefinitionReader(context).loadBeanDefinitions(locations);
 		AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
 		context.refresh();
 		context.registerShutdownHook();
 		return context;
 	}
 
+	private XmlBeanDefinitionReader createBeanDefinitionReader(GenericWebApplicationContext context) {
+		XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(context);
+		reader.setDocumentLoader(CachingDocumentLoader.getSharedInstance());
+		return reader;
+	}
+
 	protected void prepareContext(GenericWebApplicationContext context) {
 		this.servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
 		context.setServletContext(this.servletContext);
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.samples.standalone;
+
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneSetup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.RequestBuilder;
+import org.springframework.test.web.server.ResultActions;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Many requests executed concurrently against a single MockMvc instance.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class ConcurrentRequestTests {
+
+	private static final int REQUEST_COUNT = 1000;
+
+	private MockMvc mockMvc;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setup() {
+		this.mockMvc = standaloneSetup(new EchoController()).build();
+		this.executor = Executors.newFixedThreadPool(8);
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void performAsync() throws Exception {
+		this.mockMvc.performAsync(get("/echo/{value}", "foo")).get()
+			.andExpect(status().isOk())
+			.andExpect(content().string("foo"));
+	}
+
+	@Test
+	public void performAll() throws Exception {
+		List<RequestBuilder> requestBuilders = new ArrayList<RequestBuilder>();
+		for (int i = 0; i < REQUEST_COUNT; i++) {
+			requestBuilders.add(get("/echo/{value}", i));
+		}
+
+		List<Future<ResultActions>> futures = this.mockMvc.performAll(requestBuilders, this.executor);
+
+		for (int i = 0; i < REQUEST_COUNT; i++) {
+			futures.get(i).get()
+				.andExpect(status().isOk())
+				.andExpect(content().string(String.valueOf(i)));
+		}
+	}
+
+	@Test
+	public void performFromMultipleThreads() throws Exception {
+		final RequestBuilder requestBuilder = get("/echo/{value}", "shared");
+
+		List<Future<ResultActions>> futures = new ArrayList<Future<ResultActions>>();
+		for (int i = 0; i < REQUEST_COUNT; i++) {
+			futures.add(this.mockMvc.performAsync(requestBuilder, this.executor));
+		}
+
+		for (Future<ResultActions> future : futures) {
+			future.get().andExpect(content().string("shared"));
+		}
+	}
+
+	@Controller
+	@SuppressWarnings("unused")
+	private static class EchoController {
+
+		@RequestMapping(value="/echo/{value}")
+		@ResponseBody
+		public String echo(@PathVariable String value) {
+			return value;
+		}
+	}
+
+}
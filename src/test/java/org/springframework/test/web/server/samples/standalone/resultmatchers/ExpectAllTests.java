@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.samples.standalone.resultmatchers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.matchAll;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneSetup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.samples.standalone.Person;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Examples of applying several expectations at once with failures reported together.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class ExpectAllTests {
+
+	private MockMvc mockMvc;
+
+	@Before
+	public void setup() {
+		this.mockMvc = standaloneSetup(new PersonController()).build();
+	}
+
+	@Test
+	public void allMatch() throws Exception {
+		this.mockMvc.perform(get("/person/Lee").accept(MediaType.APPLICATION_JSON))
+			.andExpect(matchAll(
+				status().isOk(),
+				content().type("application/json;charset=UTF-8"),
+				jsonPath("$.name").value("Lee"),
+				jsonPath("$.someBoolean").value(false),
+				jsonPath("$.bogus").doesNotExist()));
+	}
+
+	@Test
+	public void oneFailure() throws Exception {
+		try {
+			this.mockMvc.perform(get("/person/Lee").accept(MediaType.APPLICATION_JSON))
+				.andExpect(matchAll(status().isOk(), jsonPath("$.name").value("Bogus")));
+		}
+		catch (AssertionError error) {
+			assertTrue(error.getMessage(), error.getMessage().startsWith("JSON path: $.name"));
+			return;
+		}
+		fail("Expected AssertionError");
+	}
+
+	@Test
+	public void severalFailures() throws Exception {
+		try {
+			this.mockMvc.perform(get("/person/Lee").accept(MediaType.APPLICATION_JSON))
+				.andExpect(matchAll(
+					status().isNotFound(),
+					jsonPath("$.name").value("Lee"),
+					jsonPath("$.name").value("Bogus"),
+					jsonPath("$.bogus").exists()));
+		}
+		catch (AssertionError error) {
+			String message = error.getMessage();
+			assertTrue(message, message.startsWith("3 of 4 expectations failed:"));
+			assertTrue(message, message.contains("[1] Status"));
+			assertTrue(message, message.contains("[2] JSON path: $.name"));
+			assertTrue(message, message.contains("[3] No value for JSON path: $.bogus"));
+			assertEquals(AssertionError.class, error.getCause().getClass());
+			return;
+		}
+		fail("Expected AssertionError");
+	}
+
+
+	@Controller
+	@SuppressWarnings("unused")
+	private static class PersonController {
+
+		@RequestMapping("/person/{name}")
+		@ResponseBody
+		public Person getPerson(@PathVariable String name) {
+			return new Person(name);
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.xml.DefaultDocumentLoader;
+import org.springframework.util.xml.XmlValidationModeDetector;
+import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+
+/**
+ * Tests for {@link CachingDocumentLoader}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class CachingDocumentLoaderTests {
+
+	private CountingDocumentLoader delegate;
+
+	private CachingDocumentLoader loader;
+
+	@Before
+	public void setup() {
+		this.delegate = new CountingDocumentLoader();
+		this.loader = new CachingDocumentLoader(this.delegate, 1);
+	}
+
+	@Test
+	public void sameContent() throws Exception {
+		Document document1 = load("<beans><bean id=\"foo\"/></beans>");
+		Document document2 = load("<beans><bean id=\"foo\"/></beans>");
+
+		assertEquals(1, this.delegate.count);
+		assertNotSame(document1, document2);
+		assertEquals("foo", document2.getDocumentElement().getFirstChild().getAttributes().getNamedItem("id").getNodeValue());
+	}
+
+	@Test
+	public void differentContent() throws Exception {
+		load("<beans><bean id=\"foo\"/></beans>");
+		load("<beans><bean id=\"bar\"/></beans>");
+		load("<beans><bean id=\"foo\"/></beans>");
+
+		assertEquals(3, this.delegate.count);
+		assertEquals(1, this.loader.size());
+	}
+
+	private Document load(String content) throws Exception {
+		InputSource inputSource = new InputSource(new ByteArrayInputStream(content.getBytes("UTF-8")));
+		return this.loader.loadDocument(inputSource, null, null, XmlValidationModeDetector.VALIDATION_NONE, true);
+	}
+
+
+	private static class CountingDocumentLoader extends DefaultDocumentLoader {
+
+		private int count;
+
+		@Override
+		public Document loadDocument(InputSource inputSource, EntityResolver entityResolver, ErrorHandler errorHandler,
+				int validationMode, boolean namespaceAware) throws Exception {
+
+			this.count++;
+			return super.loadDocument(inputSource, entityResolver, errorHandler, validationMode, namespaceAware);
+		}
+	}
+
+}
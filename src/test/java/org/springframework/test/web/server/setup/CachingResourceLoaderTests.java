@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.InputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.FileSystemResourceLoader;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Tests for {@link CachingResourceLoader}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class CachingResourceLoaderTests {
+
+	private File webRoot;
+
+	private MockServletContext servletContext;
+
+	@Before
+	public void setup() throws Exception {
+		this.webRoot = File.createTempFile("webapp", "");
+		this.webRoot.delete();
+		this.webRoot.mkdirs();
+		CachingResourceLoader loader = new CachingResourceLoader(new FileSystemResourceLoader());
+		this.servletContext = new MockServletContext(this.webRoot.getAbsolutePath(), loader);
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : this.webRoot.listFiles()) {
+			file.delete();
+		}
+		this.webRoot.delete();
+		CachingResourceLoader.clearCache();
+	}
+
+	@Test
+	public void readCachedContent() throws Exception {
+		File file = new File(this.webRoot, "page.html");
+		FileCopyUtils.copy("<p>Hello</p>".getBytes("UTF-8"), file);
+
+		assertEquals("<p>Hello</p>", read("/page.html"));
+		assertEquals("<p>Hello</p>", read("/page.html"));
+	}
+
+	@Test
+	public void readChangedContent() throws Exception {
+		File file = new File(this.webRoot, "page.html");
+		FileCopyUtils.copy("<p>Hello</p>".getBytes("UTF-8"), file);
+		assertEquals("<p>Hello</p>", read("/page.html"));
+
+		FileCopyUtils.copy("<p>Hello world</p>".getBytes("UTF-8"), file);
+		assertEquals("<p>Hello world</p>", read("/page.html"));
+	}
+
+	@Test
+	public void readMappedContent() throws Exception {
+		byte[] content = new byte[CachingResourceLoader.MAPPED_FILE_THRESHOLD + 1];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) i;
+		}
+		FileCopyUtils.copy(content, new File(this.webRoot, "large.bin"));
+
+		InputStream inputStream = this.servletContext.getResourceAsStream("/large.bin");
+		assertArrayEquals(content, FileCopyUtils.copyToByteArray(inputStream));
+	}
+
+	@Test
+	public void missingResource() throws Exception {
+		assertNull(this.servletContext.getResourceAsStream("/missing.html"));
+	}
+
+	private String read(String path) throws Exception {
+		return new String(FileCopyUtils.copyToByteArray(this.servletContext.getResourceAsStream(path)), "UTF-8");
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Tests for {@link ClasspathScanIndex}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class ClasspathScanIndexTests {
+
+	private static final String PATTERN = "classpath*:org/example/**/*.class";
+
+	private File classesDir;
+
+	private File indexDir;
+
+	private CountingResolver resolver;
+
+	private ClasspathScanIndex index;
+
+	@Before
+	public void setup() throws IOException {
+		File baseDir = File.createTempFile("scan", "");
+		baseDir.delete();
+		this.classesDir = new File(baseDir, "classes");
+		this.indexDir = new File(baseDir, "index");
+		createClassFile("org/example/A.class");
+		createClassFile("org/example/sub/B.class");
+
+		ClassLoader classLoader = new URLClassLoader(new URL[] {this.classesDir.toURI().toURL()}, null);
+		this.resolver = new CountingResolver(classLoader);
+		this.index = new ClasspathScanIndex(this.indexDir);
+	}
+
+	@After
+	public void cleanup() {
+		FileSystemUtils.deleteRecursively(this.classesDir.getParentFile());
+	}
+
+	@Test
+	public void supports() {
+		assertTrue(this.index.supports(PATTERN));
+		assertFalse(this.index.supports("classpath:org/example/**/*.class"));
+		assertFalse(this.index.supports("classpath*:META-INF/spring.handlers"));
+	}
+
+	@Test
+	public void indexUsed() throws IOException {
+		assertEquals(2, this.index.getResources(PATTERN, this.resolver).length);
+		assertEquals(1, this.resolver.scanCount);
+
+		assertEquals(2, this.index.getResources(PATTERN, this.resolver).length);
+		assertEquals(1, this.resolver.scanCount);
+
+		assertEquals(2, new ClasspathScanIndex(this.indexDir).getResources(PATTERN, this.resolver).length);
+		assertEquals(1, this.resolver.scanCount);
+	}
+
+	@Test
+	public void indexInvalidatedByNewClass() throws IOException {
+		assertEquals(2, this.index.getResources(PATTERN, this.resolver).length);
+
+		File dir = createClassFile("org/example/sub/C.class").getParentFile();
+		dir.setLastModified(dir.lastModified() + 2000);
+
+		assertEquals(3, this.index.getResources(PATTERN, this.resolver).length);
+		assertEquals(2, this.resolver.scanCount);
+	}
+
+	@Test
+	public void indexInvalidatedByModifiedClass() throws IOException {
+		assertEquals(2, this.index.getResources(PATTERN, this.resolver).length);
+
+		File file = new File(this.classesDir, "org/example/A.class");
+		file.setLastModified(file.lastModified() + 2000);
+
+		assertEquals(2, this.index.getResources(PATTERN, this.resolver).length);
+		assertEquals(2, this.resolver.scanCount);
+	}
+
+	private File createClassFile(String path) throws IOException {
+		File file = new File(this.classesDir, path);
+		file.getParentFile().mkdirs();
+		file.createNewFile();
+		return file;
+	}
+
+
+	private static class CountingResolver extends PathMatchingResourcePatternResolver {
+
+		private int scanCount;
+
+		public CountingResolver(ClassLoader classLoader) {
+			super(classLoader);
+		}
+
+		@Override
+		public Resource[] getResources(String locationPattern) throws IOException {
+			if (locationPattern.equals(PATTERN)) {
+				this.scanCount++;
+			}
+			return super.getResources(locationPattern);
+		}
+	}
+
+}
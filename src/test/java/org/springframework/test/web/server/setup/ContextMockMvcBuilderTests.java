@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.annotationConfigSetup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.StartupReport;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Tests for {@link ContextMockMvcBuilder}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class ContextMockMvcBuilderTests {
+
+	@Test
+	public void startupReport() {
+		MockMvc mockMvc = annotationConfigSetup(Config.class).profileStartup().build();
+		StartupReport report = mockMvc.getStartupReport();
+
+		List<String> phases = new ArrayList<String>(report.getPhaseTimes().keySet());
+		assertEquals(3, phases.size());
+		assertEquals("initServletContext", phases.get(0));
+		assertEquals("initWebApplicationContext", phases.get(1));
+		assertEquals("initDispatcherServlet", phases.get(2));
+
+		assertTrue(report.getBeanTimes().containsKey("slowBean"));
+		assertTrue(report.getBeanTimes().containsKey("requestMappingHandlerAdapter"));
+		assertEquals("slowBean", report.getSlowestBeans(1).keySet().iterator().next());
+	}
+
+	@Test
+	public void noStartupReport() {
+		assertNull(annotationConfigSetup(Config.class).build().getStartupReport());
+	}
+
+	@Test
+	public void buildAsync() throws Exception {
+		Future<MockMvc> future = annotationConfigSetup(LazyConfig.class).lazyInit().buildAsync();
+		future.get(10, TimeUnit.SECONDS).perform(get("/person")).andExpect(content().string("Joe"));
+	}
+
+	@Test
+	public void buildAll() throws Exception {
+		List<Future<MockMvc>> futures = MockMvcBuilders.buildAll(
+				annotationConfigSetup(LazyConfig.class).lazyInit(), annotationConfigSetup(LazyConfig.class).lazyInit());
+
+		assertEquals(2, futures.size());
+		for (Future<MockMvc> future : futures) {
+			future.get(10, TimeUnit.SECONDS).perform(get("/person")).andExpect(content().string("Joe"));
+		}
+	}
+
+	@Test
+	public void lazyInit() throws Exception {
+		ContextMockMvcBuilder builder = annotationConfigSetup(LazyConfig.class).lazyInit();
+		MockMvc mockMvc = builder.build();
+		LazyInitReport report = builder.getLazyInitReport();
+
+		assertTrue(report.getEagerBeanNames().contains("requestMappingHandlerMapping"));
+		assertTrue(report.getLazyBeanNames().contains("personController"));
+		assertTrue(report.getLazyBeanNames().contains("unusedBean"));
+		assertFalse(report.getMaterializedBeanNames().contains("personController"));
+
+		mockMvc.perform(get("/person")).andExpect(content().string("Joe"));
+
+		Set<String> materialized = new HashSet<String>(report.getMaterializedBeanNames());
+		materialized.removeAll(report.getRefreshMaterializedBeanNames());
+		assertEquals(Collections.singleton("personController"), materialized);
+	}
+
+
+	@Configuration
+	@EnableWebMvc
+	static class Config {
+
+		@Bean
+		public Object slowBean() throws InterruptedException {
+			Thread.sleep(200);
+			return new Object();
+		}
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class LazyConfig {
+
+		@Bean
+		public PersonController personController() {
+			return new PersonController();
+		}
+
+		@Bean
+		public Object unusedBean() {
+			throw new IllegalStateException("Should not be created");
+		}
+	}
+
+	@Controller
+	static class PersonController {
+
+		@RequestMapping("/person")
+		@ResponseBody
+		public String get() {
+			return "Joe";
+		}
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.annotationConfigSetup;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Tests for {@link ForkableMockMvc}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class ForkableMockMvcTests {
+
+	private static ForkableMockMvc mockMvc;
+
+	@BeforeClass
+	public static void setup() {
+		mockMvc = annotationConfigSetup(Config.class).forkable("counter").buildForkable();
+	}
+
+	@Test
+	public void forksAreIsolated() throws Exception {
+		MockMvcFork fork1 = mockMvc.fork();
+		MockMvcFork fork2 = mockMvc.fork();
+
+		fork1.perform(post("/increment")).andExpect(content().string("1"));
+		fork1.perform(post("/increment")).andExpect(content().string("2"));
+		fork2.perform(post("/increment")).andExpect(content().string("1"));
+
+		mockMvc.perform(post("/increment")).andExpect(content().string("1"));
+	}
+
+	@Test
+	public void forkWithStub() throws Exception {
+		MockMvcFork fork = mockMvc.fork().setBean("counter", new Counter() {
+			public int increment() {
+				return 42;
+			}
+		});
+
+		fork.perform(post("/increment")).andExpect(content().string("42"));
+	}
+
+
+	@Configuration
+	@EnableWebMvc
+	static class Config {
+
+		@Bean
+		public Counter counter() {
+			return new Counter();
+		}
+
+		@Bean
+		public CounterController counterController() {
+			return new CounterController(counter());
+		}
+	}
+
+	public static class Counter {
+
+		private int count;
+
+		public int increment() {
+			return ++this.count;
+		}
+	}
+
+	@Controller
+	static class CounterController {
+
+		private final Counter counter;
+
+		public CounterController(Counter counter) {
+			this.counter = counter;
+		}
+
+		@RequestMapping("/increment")
+		@ResponseBody
+		public String increment() {
+			return String.valueOf(this.counter.increment());
+		}
+	}
+
+}
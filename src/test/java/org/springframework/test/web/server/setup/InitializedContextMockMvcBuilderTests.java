@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneSetup;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.webApplicationContextSetup;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.TestDispatcherServlet;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Tests for {@link InitializedContextMockMvcBuilder}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class InitializedContextMockMvcBuilderTests {
+
+	@Test
+	public void dispatcherServletSharedPerContext() throws Exception {
+		WebApplicationContext wac1 = createContext();
+		WebApplicationContext wac2 = createContext();
+
+		TestDispatcherServlet servlet1 = initDispatcherServlet(wac1);
+		assertSame(servlet1, initDispatcherServlet(wac1));
+		assertNotSame(servlet1, initDispatcherServlet(wac2));
+
+		webApplicationContextSetup(wac1).build().perform(get("/person")).andExpect(content().string("Joe"));
+		webApplicationContextSetup(wac1).build().perform(get("/person")).andExpect(content().string("Joe"));
+	}
+
+	private WebApplicationContext createContext() {
+		return standaloneSetup(new PersonController()).initWebApplicationContext(new MockServletContext());
+	}
+
+	private TestDispatcherServlet initDispatcherServlet(WebApplicationContext wac) {
+		return new InitializedContextMockMvcBuilder(wac).initDispatcherServlet(wac.getServletContext(), wac);
+	}
+
+
+	@Controller
+	private static class PersonController {
+
+		@RequestMapping("/person")
+		@ResponseBody
+		public String get() {
+			return "Joe";
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.annotationConfigSetup;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.web.context.ConfigurableWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * @author Rossen Stoyanchev
+ */
+public class MockMvcCacheTests {
+
+	private static final AtomicInteger closeCount = new AtomicInteger();
+
+	private MockMvcCache cache;
+
+	@Before
+	public void setup() {
+		this.cache = new MockMvcCache(1);
+		closeCount.set(0);
+	}
+
+	@Test
+	public void sameConfiguration() {
+		MockMvc mockMvc1 = annotationConfigSetup(Config.class).cache(this.cache).build();
+		MockMvc mockMvc2 = annotationConfigSetup(Config.class).cache(this.cache).build();
+
+		assertSame(mockMvc1, mockMvc2);
+		assertEquals(1, this.cache.getMissCount());
+		assertEquals(1, this.cache.getHitCount());
+	}
+
+	@Test
+	public void differentProfiles() {
+		MockMvc mockMvc1 = annotationConfigSetup(Config.class).cache(this.cache).build();
+		MockMvc mockMvc2 = annotationConfigSetup(Config.class).activateProfiles("foo").cache(this.cache).build();
+
+		assertNotSame(mockMvc1, mockMvc2);
+		assertEquals(2, this.cache.getMissCount());
+		assertEquals(0, this.cache.getHitCount());
+	}
+
+	@Test
+	public void differentStartupProfiling() {
+		this.cache = new MockMvcCache(2);
+		MockMvc mockMvc1 = annotationConfigSetup(Config.class).cache(this.cache).build();
+		MockMvc mockMvc2 = annotationConfigSetup(Config.class).profileStartup().cache(this.cache).build();
+
+		assertNotSame(mockMvc1, mockMvc2);
+		assertEquals(2, this.cache.getMissCount());
+	}
+
+	@Test
+	public void sameInitializerInstance() {
+		Initializer initializer = new Initializer();
+		MockMvc mockMvc1 = annotationConfigSetup(Config.class).applyInitializers(initializer).cache(this.cache).build();
+		MockMvc mockMvc2 = annotationConfigSetup(Config.class).applyInitializers(initializer).cache(this.cache).build();
+
+		assertSame(mockMvc1, mockMvc2);
+		assertEquals(1, this.cache.getHitCount());
+	}
+
+	@Test
+	public void differentInitializerInstances() {
+		this.cache = new MockMvcCache(2);
+		MockMvc mockMvc1 = annotationConfigSetup(Config.class).applyInitializers(new Initializer()).cache(this.cache).build();
+		MockMvc mockMvc2 = annotationConfigSetup(Config.class).applyInitializers(new Initializer()).cache(this.cache).build();
+
+		assertNotSame(mockMvc1, mockMvc2);
+		assertEquals(2, this.cache.getMissCount());
+	}
+
+	@Test
+	public void evictionClosesContext() {
+		annotationConfigSetup(Config.class).cache(this.cache).build();
+		annotationConfigSetup(Config.class).configureWebAppRootDir("src/test/webapp", false).cache(this.cache).build();
+
+		assertEquals(1, this.cache.size());
+		assertEquals(1, this.cache.getEvictionCount());
+		assertEquals(1, closeCount.get());
+
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+		assertEquals(2, closeCount.get());
+	}
+
+
+	@Configuration
+	@EnableWebMvc
+	static class Config {
+
+		@Bean
+		public DisposableBean closeCounter() {
+			return new DisposableBean() {
+				public void destroy() {
+					closeCount.incrementAndGet();
+				}
+			};
+		}
+	}
+
+	static class Initializer implements ApplicationContextInitializer<ConfigurableWebApplicationContext> {
+
+		public void initialize(ConfigurableWebApplicationContext applicationContext) {
+		}
+	}
+
+}
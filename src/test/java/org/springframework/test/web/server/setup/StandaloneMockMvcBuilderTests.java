@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.server.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.server.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneSetup;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.i18n.FixedLocaleResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.view.InternalResourceViewResolver;
+
+/**
+ * Tests for {@link StandaloneMockMvcBuilder}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class StandaloneMockMvcBuilderTests {
+
+	@Test
+	public void defaultInfrastructureShared() {
+		WebApplicationContext wac1 = standaloneSetup(new PersonController()).initWebApplicationContext(new MockServletContext());
+		WebApplicationContext wac2 = standaloneSetup(new PersonController())
+				.setLocaleResolver(new FixedLocaleResolver()).initWebApplicationContext(new MockServletContext());
+
+		RequestMappingHandlerAdapter adapter1 = wac1.getBean(RequestMappingHandlerAdapter.class);
+		RequestMappingHandlerAdapter adapter2 = wac2.getBean(RequestMappingHandlerAdapter.class);
+		assertNotSame(adapter1, adapter2);
+		assertSame(adapter1.getMessageConverters().get(0), adapter2.getMessageConverters().get(0));
+		assertNotSame(wac1.getBean("requestMappingHandlerMapping"), wac2.getBean("requestMappingHandlerMapping"));
+	}
+
+	@Test
+	public void customizedInfrastructureNotShared() {
+		WebApplicationContext wac1 = standaloneSetup(new PersonController()).initWebApplicationContext(new MockServletContext());
+		WebApplicationContext wac2 = standaloneSetup(new PersonController())
+				.setMessageConverters(new StringHttpMessageConverter()).initWebApplicationContext(new MockServletContext());
+
+		RequestMappingHandlerAdapter adapter1 = wac1.getBean(RequestMappingHandlerAdapter.class);
+		RequestMappingHandlerAdapter adapter2 = wac2.getBean(RequestMappingHandlerAdapter.class);
+		assertNotSame(adapter1.getMessageConverters().get(0), adapter2.getMessageConverters().get(0));
+		assertEquals(1, adapter2.getMessageConverters().size());
+	}
+
+	@Test
+	public void contextAwareBeansBoundToOwnContext() {
+		WebApplicationContext wac = standaloneSetup(new PersonController()).initWebApplicationContext(new MockServletContext());
+
+		assertSame(wac, wac.getBean(RequestMappingHandlerAdapter.class).getApplicationContext());
+		assertSame(wac, wac.getBean(InternalResourceViewResolver.class).getApplicationContext());
+	}
+
+	@Test
+	public void explicitInfrastructure() throws Exception {
+		StandaloneMvcInfrastructure infrastructure = standaloneSetup()
+				.setMessageConverters(new StringHttpMessageConverter())
+				.buildInfrastructure();
+
+		LocaleResolver localeResolver = new FixedLocaleResolver();
+		StandaloneMockMvcBuilder builder = standaloneSetup(new PersonController())
+				.setInfrastructure(infrastructure).setLocaleResolver(localeResolver);
+		WebApplicationContext wac = builder.initWebApplicationContext(new MockServletContext());
+		assertSame(localeResolver, wac.getBean("localeResolver"));
+		assertEquals(1, wac.getBean(RequestMappingHandlerAdapter.class).getMessageConverters().size());
+
+		MockMvc mockMvc = standaloneSetup(new PersonController()).setInfrastructure(infrastructure).build();
+		mockMvc.perform(get("/person")).andExpect(content().string("Joe"));
+	}
+
+	@Test
+	public void extendRequestMappingHandlerAdapter() {
+		ExtendingBuilder builder = new ExtendingBuilder(new PersonController());
+		WebApplicationContext wac = builder.initWebApplicationContext(new MockServletContext());
+		RequestMappingHandlerAdapter adapter = wac.getBean(RequestMappingHandlerAdapter.class);
+
+		assertEquals(1, builder.adapterCount);
+		assertSame(builder.messageConverter, adapter.getMessageConverters().get(adapter.getMessageConverters().size() - 1));
+		assertTrue(adapter.getArgumentResolvers().getResolvers().contains(builder.argumentResolver));
+	}
+
+	@Test
+	public void requestMappingsCachedPerControllerClass() {
+		RequestMappingHandlerMapping mapping1 = getHandlerMapping(new PersonController());
+		RequestMappingHandlerMapping mapping2 = getHandlerMapping(new PersonController());
+
+		assertEquals(1, mapping1.getHandlerMethods().size());
+		assertSame(mapping1.getHandlerMethods().keySet().iterator().next(),
+				mapping2.getHandlerMethods().keySet().iterator().next());
+	}
+
+	private RequestMappingHandlerMapping getHandlerMapping(Object controller) {
+		WebApplicationContext wac = standaloneSetup(controller).initWebApplicationContext(new MockServletContext());
+		return wac.getBean(RequestMappingHandlerMapping.class);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void noControllers() {
+		standaloneSetup().build();
+	}
+
+
+	private static class ExtendingBuilder extends StandaloneMockMvcBuilder {
+
+		private final HttpMessageConverter<?> messageConverter = new StringHttpMessageConverter();
+
+		private final HandlerMethodArgumentResolver argumentResolver = new NoOpArgumentResolver();
+
+		private int adapterCount;
+
+		public ExtendingBuilder(Object... controllers) {
+			super(controllers);
+		}
+
+		@Override
+		protected void extendRequestMappingHandlerAdapter(RequestMappingHandlerAdapter handlerAdapter) {
+			this.adapterCount++;
+			handlerAdapter.getMessageConverters().add(this.messageConverter);
+			handlerAdapter.setCustomArgumentResolvers(
+					Collections.<HandlerMethodArgumentResolver>singletonList(this.argumentResolver));
+		}
+	}
+
+	private static class NoOpArgumentResolver implements HandlerMethodArgumentResolver {
+
+		public boolean supportsParameter(MethodParameter parameter) {
+			return false;
+		}
+
+		public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+				NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+			return null;
+		}
+	}
+
+	@Controller
+	private static class PersonController {
+
+		@RequestMapping("/person")
+		@ResponseBody
+		public String get() {
+			return "Joe";
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.Aware;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+import org.springframework.web.servlet.i18n.FixedLocaleResolver;
+
+/**
+ * Tests for {@link StubWebApplicationContext}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class StubWebApplicationContextTests {
+
+	private StubWebApplicationContext wac;
+
+	@Before
+	public void setup() {
+		this.wac = new StubWebApplicationContext(new MockServletContext());
+		this.wac.addBean("mapping", new SimpleUrlHandlerMapping());
+		this.wac.addBean("localeResolver", new AcceptHeaderLocaleResolver());
+		this.wac.addBean("controller", new TestController());
+	}
+
+	@Test
+	public void beanNamesForType() {
+		assertArrayEquals(new String[] {"mapping"}, this.wac.getBeanNamesForType(HandlerMapping.class));
+		assertArrayEquals(new String[] {"mapping"}, this.wac.getBeanNamesForType(SimpleUrlHandlerMapping.class));
+		assertArrayEquals(new String[] {"mapping"}, this.wac.getBeanNamesForType(ApplicationContextAware.class));
+		assertArrayEquals(new String[] {"mapping"}, this.wac.getBeanNamesForType(Aware.class));
+		assertEquals(0, this.wac.getBeanNamesForType(String.class).length);
+		assertEquals(new HashSet<String>(Arrays.asList("mapping", "localeResolver", "controller")),
+				new HashSet<String>(Arrays.asList(this.wac.getBeanNamesForType(Object.class))));
+	}
+
+	@Test
+	public void beanReplaced() {
+		LocaleResolver localeResolver = new FixedLocaleResolver();
+		this.wac.addBean("localeResolver", localeResolver);
+
+		assertEquals(1, this.wac.getBeansOfType(LocaleResolver.class).size());
+		assertEquals(localeResolver, this.wac.getBeansOfType(LocaleResolver.class).get("localeResolver"));
+		assertEquals(0, this.wac.getBeansOfType(AcceptHeaderLocaleResolver.class).size());
+	}
+
+	@Test
+	public void annotations() {
+		assertNotNull(this.wac.findAnnotationOnBean("controller", Controller.class));
+		assertNull(this.wac.findAnnotationOnBean("mapping", Controller.class));
+		assertEquals(1, this.wac.getBeansWithAnnotation(Controller.class).size());
+
+		this.wac.addBean("controller2", new TestController());
+		assertEquals(2, this.wac.getBeansWithAnnotation(Controller.class).size());
+	}
+
+
+	@Controller
+	private static class TestController {
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link StreamingJsonPath}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class StreamingJsonPathTests {
+
+	private static final String CONTENT =
+			"{ \"foo\" : \"bar\", \"num\": -1.5e3, \"nil\": null, \"empty\": [], " +
+			"\"qux\": [\"baz1\", \"baz2\", {\"x\": \"}]\\\"\"}], " +
+			"\"store\": {\"books\": [{\"title\": \"A\", \"price\": 1}, {\"price\": 2}, {\"title\": \"C\"}], " +
+			"\"we\\\"ird\": 5, \"esc\\u0041ped\": 6}}";
+
+	@Test
+	public void properties() {
+		assertValues("$.foo", "\"bar\"");
+		assertValues("$['foo']", "\"bar\"");
+		assertValues("$.num", "-1.5e3");
+		assertValues("$.nil", "null");
+		assertValues("$.empty", "[]");
+		assertValues("$.store['we\"ird']", "5");
+		assertValues("$.store.escAped", "6");
+		assertValues("$.bogus");
+		assertValues("$.store.bogus");
+	}
+
+	@Test
+	public void arrays() {
+		assertValues("$.qux[1]", "\"baz2\"");
+		assertValues("$.qux[2].x", "\"}]\\\"\"");
+		assertValues("$['store'][\"books\"][2]", "{\"title\": \"C\"}");
+		assertValues("$.qux[7]");
+	}
+
+	@Test
+	public void wildcards() {
+		assertValues("$.qux[*]", "\"baz1\"", "\"baz2\"", "{\"x\": \"}]\\\"\"}");
+		assertValues("$.store.books[*].title", "\"A\"", "\"C\"");
+		assertValues("$.store.books[*]['price']", "1", "2");
+		assertValues("$.empty[*]");
+	}
+
+	@Test
+	public void definite() {
+		assertTrue(StreamingJsonPath.compile("$.store.books[0].title").isDefinite());
+		assertFalse(StreamingJsonPath.compile("$.store.books[*].title").isDefinite());
+	}
+
+	@Test
+	public void unsupportedPath() {
+		String[] expressions = new String[] {
+				"foo", "$.", "$..foo", "$.*", "$.qux[0,1]", "$.qux[-1]", "$.qux[1:2]", "$.qux[?(@.x)]", "$['a','b']"
+		};
+		for (String expression : expressions) {
+			assertNull(expression, StreamingJsonPath.compile(expression));
+		}
+	}
+
+	@Test
+	public void unsupportedContent() {
+		assertNull(StreamingJsonPath.compile("$.foo.bar").evaluate(CONTENT));
+		assertNull(StreamingJsonPath.compile("$.qux.x").evaluate(CONTENT));
+		assertNull(StreamingJsonPath.compile("$.qux[0]").evaluate("{'qux': ['a']}"));
+		assertNull(StreamingJsonPath.compile("$.foo").evaluate("{\"foo\": "));
+	}
+
+	@Test
+	public void malformedContent() {
+		String[] contents = new String[] {
+				"{\"foo\": \"bar\", <garbage>", "{\"foo\": \"bar\", \"qux\": {\"x\" 1}}", "{\"qux\": [1 2], \"foo\": 1}",
+				"{\"qux\": tru, \"foo\": 1}", "{\"qux\": {\"x\": 1], \"foo\": 1}", "{\"foo\": 1"
+		};
+		for (String content : contents) {
+			assertNull(content, StreamingJsonPath.compile("$.foo").evaluate(content));
+			assertNull(content, StreamingJsonPath.compile("$.bogus").evaluate(content));
+		}
+	}
+
+	@Test
+	public void trailingContent() {
+		assertNull(StreamingJsonPath.compile("$.foo").evaluate("{\"foo\": 1} trailing"));
+		assertNull(StreamingJsonPath.compile("$.qux[*]").evaluate("{\"qux\": [1]}}"));
+		assertEquals(Arrays.asList("1"), StreamingJsonPath.compile("$.foo").evaluate(" {\"foo\": 1} \n"));
+	}
+
+	@Test
+	public void definiteValueAmongNestedContent() {
+		String content = "{\"foo\": [1, {\"a\": [[], {}, \"]\"]}], \"bar\": {\"baz\": -0.5E+2, \"nil\": null}}";
+		assertEquals(Arrays.asList("-0.5E+2"), StreamingJsonPath.compile("$.bar.baz").evaluate(content));
+		assertEquals(Arrays.asList("{\"a\": [[], {}, \"]\"]}"), StreamingJsonPath.compile("$.foo[1]").evaluate(content));
+	}
+
+	private void assertValues(String expression, String... expected) {
+		List<String> values = StreamingJsonPath.compile(expression).evaluate(CONTENT);
+		List<String> expectedValues = (expected.length > 0) ? Arrays.asList(expected) : Collections.<String>emptyList();
+		assertEquals(expression, expectedValues, values);
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.xml.SimpleNamespaceContext;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+/**
+ * Tests for {@link StreamingXpathExpression} comparing results with those of
+ * DOM-based XPath evaluation.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class StreamingXpathExpressionTests {
+
+	private static final String CONTENT =
+			"<people xmlns:p=\"http://example.org/person\">" +
+			"<person id=\"1\" status=\"active\"><name>Joe</name><age>42</age></person>" +
+			"<person id=\"2\"><name>Jane <![CDATA[<Doe>]]></name><age>39</age></person>" +
+			"<group><person id=\"3\" status=\"active\"><name>Jim</name></person></group>" +
+			"<p:person p:id=\"4\"><name>Nested <b>markup</b></name></p:person>" +
+			"<enabled>true</enabled>" +
+			"</people>";
+
+	private static final Map<String, String> NAMESPACES =
+			Collections.singletonMap("p", "http://example.org/person");
+
+	private Document document;
+
+	private XPath xpath;
+
+	@Before
+	public void setup() throws Exception {
+		this.document = new XmlParserPool(true, null).parse(CONTENT);
+		this.xpath = XPathFactory.newInstance().newXPath();
+		SimpleNamespaceContext namespaceContext = new SimpleNamespaceContext();
+		namespaceContext.setBindings(NAMESPACES);
+		this.xpath.setNamespaceContext(namespaceContext);
+	}
+
+	@Test
+	public void locationPaths() throws Exception {
+		String[] expressions = new String[] {
+				"/people/person", "//person", "people/person/name", "/people//name", "//group//name",
+				"/people/*", "//*", "//person[@status='active']", "//person[@status=\"active\"]",
+				"//person[@status]", "//person[@id='2'][@status]", "//person[ @id = '3' ]/name",
+				"//@id", "/people/person/@id", "//p:person", "//p:person/@p:id", "//@p:id",
+				"/people/person[@id='1']/@status", "//person/@*", "/people/missing", "//enabled"
+		};
+		for (String expression : expressions) {
+			StreamingXpathExpression streamingExpression = StreamingXpathExpression.compile(expression, NAMESPACES);
+			assertNotNull(expression, streamingExpression);
+			assertTrue(expression, streamingExpression.isLocationPath());
+
+			NodeList nodeList = (NodeList) this.xpath.evaluate(expression, this.document, XPathConstants.NODESET);
+			assertEquals(expression, nodeList.getLength(), streamingExpression.evaluateCount(reader()));
+			assertEquals(expression, nodeList.getLength() > 0, streamingExpression.evaluateExists(reader()));
+
+			String expected = (String) this.xpath.evaluate(expression, this.document, XPathConstants.STRING);
+			assertEquals(expression, expected, streamingExpression.evaluateString(reader()));
+		}
+	}
+
+	@Test
+	public void functions() throws Exception {
+		String[] expressions = new String[] {
+				"count(//person)", "count(//person[@status='active'])", "count(//@id)", "count(/people/missing)",
+				"string(//person[@id='2']/name)", "string(/people/person/@id)", "string(//p:person)"
+		};
+		for (String expression : expressions) {
+			StreamingXpathExpression streamingExpression = StreamingXpathExpression.compile(expression, NAMESPACES);
+			assertNotNull(expression, streamingExpression);
+			assertFalse(expression, streamingExpression.isLocationPath());
+
+			String expected = (String) this.xpath.evaluate(expression, this.document, XPathConstants.STRING);
+			assertEquals(expression, expected, streamingExpression.evaluateString(reader()));
+		}
+	}
+
+	@Test
+	public void numbers() throws Exception {
+		String[] expressions = new String[] {
+				"count(//person)", "/people/person/age", "//person[@id='2']/age", "/people/person/name", "/people/missing"
+		};
+		for (String expression : expressions) {
+			StreamingXpathExpression streamingExpression = StreamingXpathExpression.compile(expression, NAMESPACES);
+			Double expected = (Double) this.xpath.evaluate(expression, this.document, XPathConstants.NUMBER);
+			assertEquals(expression, expected, streamingExpression.evaluateNumber(reader()));
+		}
+	}
+
+	@Test
+	public void unsupported() throws Exception {
+		String[] expressions = new String[] {
+				"/", "//person[1]", "//person[name='Joe']", "//person/text()", "//person/..", "child::person",
+				"//person[@id='1' and @status]", "//q:person", "//p:*", "//@id/name", "sum(//age)", "/people/person/"
+		};
+		for (String expression : expressions) {
+			assertNull(expression, StreamingXpathExpression.compile(expression, NAMESPACES));
+		}
+	}
+
+	@Test
+	public void deeplyNested() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append("<a>");
+		}
+		sb.append("<b/>");
+		for (int i = 0; i < 100; i++) {
+			sb.append("</a>");
+		}
+		StreamingXpathExpression streamingExpression = StreamingXpathExpression.compile("//a//b", null);
+		assertEquals(1, streamingExpression.evaluateCount(new StringReader(sb.toString())));
+		streamingExpression = StreamingXpathExpression.compile("//a", null);
+		assertEquals(100, streamingExpression.evaluateCount(new StringReader(sb.toString())));
+	}
+
+	@Test
+	public void malformedContentAfterFirstMatch() throws Exception {
+		String content = "<people><person><name>Joe</name></person><person></people>";
+		String[] expressions = new String[] { "//person", "//name", "string(//name)" };
+		for (String expression : expressions) {
+			StreamingXpathExpression streamingExpression = StreamingXpathExpression.compile(expression, null);
+			try {
+				streamingExpression.evaluateString(new StringReader(content));
+				fail(expression);
+			}
+			catch (XMLStreamException ex) {
+				// expected
+			}
+		}
+		try {
+			StreamingXpathExpression.compile("//person", null).evaluateExists(new StringReader(content));
+			fail();
+		}
+		catch (XMLStreamException ex) {
+			// expected
+		}
+	}
+
+	private StringReader reader() {
+		return new StringReader(CONTENT);
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+/**
+ * Tests for {@link XmlParserPool}.
+ *
+ * @author Rossen Stoyanchev
+ */
+public class XmlParserPoolTests {
+
+	private static final String CONTENT = "<p:person xmlns:p=\"http://example.org/person\"><name>Joe</name></p:person>";
+
+	@Test
+	public void documentBuilderPerThread() throws Exception {
+		final XmlParserPool pool = new XmlParserPool(true, null);
+		DocumentBuilder documentBuilder = pool.getDocumentBuilder();
+		assertSame(documentBuilder, pool.getDocumentBuilder());
+
+		final AtomicReference<Object> other = new AtomicReference<Object>();
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					other.set(pool.getDocumentBuilder());
+				}
+				catch (ParserConfigurationException ex) {
+					other.set(ex);
+				}
+			}
+		};
+		thread.start();
+		thread.join();
+
+		assertNotSame(documentBuilder, other.get());
+		assertEquals(true, other.get() instanceof DocumentBuilder);
+	}
+
+	@Test
+	public void namespaceAware() throws Exception {
+		Document document = new XmlParserPool(true, null).parse(CONTENT);
+		assertEquals("http://example.org/person", document.getDocumentElement().getNamespaceURI());
+		assertEquals("person", document.getDocumentElement().getLocalName());
+	}
+
+	@Test
+	public void notNamespaceAware() throws Exception {
+		Document document = new XmlParserPool(false, null).parse(CONTENT);
+		assertNull(document.getDocumentElement().getNamespaceURI());
+	}
+
+	@Test(expected=ParserConfigurationException.class)
+	public void unknownFeature() throws Exception {
+		new XmlParserPool(true, Collections.singletonMap("http://example.org/unknown", true)).getDocumentBuilder();
+	}
+
+	@Test
+	public void parseShared() throws Exception {
+		XmlParserPool pool = new XmlParserPool(true, null);
+		Document document = pool.parseShared(CONTENT);
+		assertSame(document, pool.parseShared(CONTENT));
+		assertNotSame(document, pool.parseShared(new String(CONTENT)));
+		assertNotSame(document, pool.parse(CONTENT));
+	}
+
+	@Test
+	public void parseSharedPerPool() throws Exception {
+		Document document = new XmlParserPool(true, null).parseShared(CONTENT);
+		Document notNamespaceAware = new XmlParserPool(false, null).parseShared(CONTENT);
+		assertNotSame(document, notNamespaceAware);
+		assertNull(notNamespaceAware.getDocumentElement().getNamespaceURI());
+	}
+
+	@Test
+	public void xpath() throws Exception {
+		XmlParserPool pool = new XmlParserPool(true, null);
+		Document document = pool.parse(CONTENT);
+		assertEquals("Joe", pool.newXPath().evaluate("//name", document));
+	}
+
+}